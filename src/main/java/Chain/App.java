@@ -2,6 +2,9 @@ package Chain;
 
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
 /**
  * 责任链模式: 它帮助构建一串对象。请求从一个对象中进入并结束然后进入到一个个对象中直到找到合适的处理器。
  *
@@ -12,10 +15,25 @@ import lombok.extern.slf4j.Slf4j;
 public class App {
 
 
-  public static void main(String[] args) {
+  public static void main(String[] args) throws InterruptedException {
     OrcKing king = new OrcKing();
     king.makeRequest(new Request(RequestType.DEFEND_CASTLE, "保卫城堡"));
     king.makeRequest(new Request(RequestType.TORTURE_PRISONER, "折磨囚犯"));
     king.makeRequest(new Request(RequestType.COLLECT_TAX, "收税"));
+
+    king.makeRequests(Arrays.asList(
+        new Request(RequestType.COLLECT_TAX, "收东城的税"),
+        new Request(RequestType.DEFEND_CASTLE, "保卫北门"),
+        new Request(RequestType.COLLECT_TAX, "收西城的税")));
+
+    RequestScheduler scheduler = new RequestScheduler(king, 2);
+    scheduler.submit(new Request(RequestType.COLLECT_TAX, "收南城的税"));
+    scheduler.submit(new Request(RequestType.DEFEND_CASTLE, "保卫南门"));
+    scheduler.shutdown();
+    scheduler.awaitTermination(1, TimeUnit.SECONDS);
+    LOGGER.info("保卫城堡的请求平均等待 {} ns", scheduler.getWaitTime(RequestType.DEFEND_CASTLE).getMean());
+
+    king.reportMetrics((handler, metrics) -> LOGGER.info("{}: 处理 {} 个请求, 平均耗时 {} ns, p99 {} ns",
+        handler, metrics.getMatches(), metrics.getLatency().getMean(), metrics.getLatency().getValueAtPercentile(99)));
   }
 }
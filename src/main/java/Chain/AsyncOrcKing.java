@@ -0,0 +1,67 @@
+package Chain;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * 异步下达命令的兽人国王。
+ *
+ * <p>请求在给定的 {@link Executor} 上沿处理链执行, 调用方立即拿到 {@link CompletableFuture}。
+ * 在 JDK 21 及以上可以传入 {@code Executors.newVirtualThreadPerTaskExecutor()}, 让每个请求运行在虚拟线程上。
+ *
+ * <p>同时执行中的请求数不超过 maxInFlight, 达到上限时 {@link #makeRequest(Request)} 会阻塞调用方,
+ * 直到有请求完成, 从而让生产者减速而不是无限堆积。
+ */
+public class AsyncOrcKing {
+
+  private final OrcKing king;
+  private final Executor executor;
+  private final int maxInFlight;
+  private final Semaphore permits;
+
+  /**
+   * 构造方法.
+   *
+   * @param king        实际分发请求的兽人国王
+   * @param executor    执行处理链的线程池
+   * @param maxInFlight 同时执行中的最大请求数
+   */
+  public AsyncOrcKing(OrcKing king, Executor executor, int maxInFlight) {
+    if (maxInFlight < 1) {
+      throw new IllegalArgumentException("maxInFlight must be positive.");
+    }
+    this.king = king;
+    this.executor = executor;
+    this.maxInFlight = maxInFlight;
+    this.permits = new Semaphore(maxInFlight);
+  }
+
+  /**
+   * 异步处理请求, 执行中的请求达到上限时阻塞.
+   *
+   * @param req 请求
+   * @return 处理结束后以该请求完成的 future
+   * @throws InterruptedException 等待空位时被中断
+   */
+  public CompletableFuture<Request> makeRequest(Request req) throws InterruptedException {
+    permits.acquire();
+    try {
+      return CompletableFuture.supplyAsync(() -> {
+        king.makeRequest(req);
+        return req;
+      }, executor).whenComplete((result, error) -> permits.release());
+    } catch (RejectedExecutionException e) {
+      permits.release();
+      throw e;
+    }
+  }
+
+  /**
+   * 当前执行中的请求数.
+   */
+  public int inFlight() {
+    return maxInFlight - permits.availablePermits();
+  }
+}
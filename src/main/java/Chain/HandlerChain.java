@@ -0,0 +1,127 @@
+package Chain;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 不可变的处理链快照。
+ *
+ * <p>建链时沿链依次询问每个处理者, 为每种 {@link RequestType} 记下第一个负责它的处理者, 之后分发请求只需查一次表,
+ * 结果与从链头逐个传递完全一致。
+ *
+ * <p>查表分发时请求不会经过排在前面的处理者。链只为每种请求类型记一次分发次数, 读取指标时再由这些计数算出每个处理者的传递次数,
+ * 结果与逐个传递时一致, 分发本身仍然只需一次查表和一次计数。链发布后通过 {@link #attach()} 登记到各处理者的指标上。
+ */
+final class HandlerChain {
+
+  private final List<RequestHandler> handlers;
+  // 请求类型的 ordinal -> 负责它的处理者在链中的下标, 没有处理者负责时为 -1
+  private final int[] ownerIndex;
+  // 请求类型的 ordinal -> 排在负责者前面、会把该类型请求传递下去的处理者数量
+  private final int[] passedCount;
+  // 请求类型的 ordinal -> 经这条链分发的该类型请求数
+  private final LongAdder[] dispatched;
+
+  HandlerChain(List<RequestHandler> handlers) {
+    this.handlers = Collections.unmodifiableList(new ArrayList<>(handlers));
+    this.ownerIndex = new int[RequestType.values().length];
+    this.passedCount = new int[RequestType.values().length];
+    this.dispatched = new LongAdder[RequestType.values().length];
+    for (RequestType type : RequestType.values()) {
+      dispatched[type.ordinal()] = new LongAdder();
+      ownerIndex[type.ordinal()] = -1;
+      passedCount[type.ordinal()] = this.handlers.size();
+      for (int i = 0; i < this.handlers.size(); i++) {
+        if (this.handlers.get(i).canHandle(type)) {
+          ownerIndex[type.ordinal()] = i;
+          passedCount[type.ordinal()] = i;
+          break;
+        }
+      }
+    }
+  }
+
+  /**
+   * 沿 next 引用收集从 head 开始的整条链.
+   */
+  static HandlerChain of(RequestHandler head) {
+    List<RequestHandler> handlers = new ArrayList<>();
+    for (RequestHandler handler = head; handler != null; handler = handler.getNext()) {
+      handlers.add(handler);
+    }
+    return new HandlerChain(handlers);
+  }
+
+  List<RequestHandler> getHandlers() {
+    return handlers;
+  }
+
+  /**
+   * 把请求交给负责它的处理者, 没有处理者负责时请求保持未处理状态.
+   */
+  void dispatch(Request req) {
+    int ordinal = req.getRequestType().ordinal();
+    dispatched[ordinal].increment();
+    int owner = ownerIndex[ordinal];
+    if (owner >= 0) {
+      handlers.get(owner).timedHandle(req);
+    }
+  }
+
+  /**
+   * 按处理者对请求分组, 每个处理者只调用一次 {@link RequestHandler#handleAll(List)}, 组内保持提交顺序.
+   */
+  void dispatchBatch(Collection<Request> reqs) {
+    List<List<Request>> groups = new ArrayList<>(Collections.<List<Request>>nCopies(handlers.size(), null));
+    int[] typeCounts = new int[passedCount.length];
+    for (Request req : reqs) {
+      int ordinal = req.getRequestType().ordinal();
+      typeCounts[ordinal]++;
+      int owner = ownerIndex[ordinal];
+      if (owner < 0) {
+        continue;
+      }
+      List<Request> group = groups.get(owner);
+      if (group == null) {
+        group = new ArrayList<>();
+        groups.set(owner, group);
+      }
+      group.add(req);
+    }
+    for (int ordinal = 0; ordinal < typeCounts.length; ordinal++) {
+      if (typeCounts[ordinal] > 0) {
+        dispatched[ordinal].add(typeCounts[ordinal]);
+      }
+    }
+    for (int i = 0; i < handlers.size(); i++) {
+      if (groups.get(i) != null) {
+        handlers.get(i).timedHandleAll(groups.get(i));
+      }
+    }
+  }
+
+  /**
+   * 把这条链登记到各处理者的指标上, 链发布后调用一次.
+   */
+  void attach() {
+    for (int i = 0; i < handlers.size(); i++) {
+      handlers.get(i).getMetrics().addPassThroughSource(this, i);
+    }
+  }
+
+  /**
+   * 链上第 index 个处理者经这条链传递的请求数: 所有负责者排在它后面(或没有负责者)的请求类型的分发次数之和.
+   */
+  long passThroughs(int index) {
+    long sum = 0;
+    for (int ordinal = 0; ordinal < dispatched.length; ordinal++) {
+      if (passedCount[ordinal] > index) {
+        sum += dispatched[ordinal].sum();
+      }
+    }
+    return sum;
+  }
+}
@@ -0,0 +1,91 @@
+package Chain;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个处理者的运行指标, 全部计数都是无锁的.
+ *
+ * <ul>
+ *   <li>调用次数: 请求到达该处理者的次数, 等于命中次数加传递次数</li>
+ *   <li>命中次数: 该处理者亲自处理的请求数</li>
+ *   <li>传递次数: 该处理者不负责而交给下一个处理者的请求数</li>
+ *   <li>处理耗时: 亲自处理请求所花的纳秒数</li>
+ * </ul>
+ *
+ * <p>经 {@link OrcKing} 查表分发时, 传递次数不在分发时逐个记录, 而是在读取时由处理者所在各条链的分发计数算出.
+ * 每次换链都会为链上的处理者多登记一条链, 换链是低频操作, 登记数与换链次数成正比.
+ */
+public class HandlerMetrics {
+
+  private final LongAdder matches = new LongAdder();
+  private final LongAdder passThroughs = new LongAdder();
+  private final LatencyHistogram latency = new LatencyHistogram();
+  // 该处理者所在的各条链及其在链中的下标
+  private final List<PassThroughSource> sources = new CopyOnWriteArrayList<>();
+
+  void recordMatch(long nanos) {
+    matches.increment();
+    latency.record(nanos);
+  }
+
+  /**
+   * 记录一次批量处理, 整批耗时平均到每个请求上.
+   */
+  void recordMatches(int count, long nanos) {
+    matches.add(count);
+    latency.record(nanos / count, count);
+  }
+
+  void recordPassThrough() {
+    passThroughs.increment();
+  }
+
+  void recordPassThroughs(int count) {
+    passThroughs.add(count);
+  }
+
+  void addPassThroughSource(HandlerChain chain, int index) {
+    sources.add(new PassThroughSource(chain, index));
+  }
+
+  public long getInvocations() {
+    return getMatches() + getPassThroughs();
+  }
+
+  public long getMatches() {
+    return matches.sum();
+  }
+
+  public long getPassThroughs() {
+    long sum = passThroughs.sum();
+    for (PassThroughSource source : sources) {
+      sum += source.chain.passThroughs(source.index);
+    }
+    return sum;
+  }
+
+  /**
+   * 命中次数占调用次数的比例, 没有调用时为 0.
+   */
+  public double getMatchRate() {
+    long invocations = getInvocations();
+    return invocations == 0 ? 0 : (double) getMatches() / invocations;
+  }
+
+  public LatencyHistogram getLatency() {
+    return latency;
+  }
+
+  private static final class PassThroughSource {
+
+    private final HandlerChain chain;
+    private final int index;
+
+    private PassThroughSource(HandlerChain chain, int index) {
+      this.chain = chain;
+      this.index = index;
+    }
+  }
+}
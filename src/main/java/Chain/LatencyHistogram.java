@@ -0,0 +1,108 @@
+package Chain;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 无锁的对数-线性延迟直方图, 思路与 HdrHistogram 相同。
+ *
+ * <p>小于 2^{@value #SUB_BUCKET_BITS} 的值每个值一个桶; 更大的值按最高位所在的 2 的幂分段, 每段再线性分成
+ * 2^{@value #SUB_BUCKET_BITS} 个桶, 因此任何值的相对误差不超过 1/2^{@value #SUB_BUCKET_BITS}。
+ * 记录不加锁: 一次桶计数的原子加、两次 {@link LongAdder} 累加, 只有出现新的最大值时才需要 CAS 更新最大值。
+ */
+public class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 5;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+  private final LongAdder totalCount = new LongAdder();
+  private final LongAdder totalValue = new LongAdder();
+  private final AtomicLong maxValue = new AtomicLong();
+
+  /**
+   * 记录一个值, 负数按 0 记录.
+   */
+  public void record(long value) {
+    record(value, 1);
+  }
+
+  /**
+   * 把同一个值记录 count 次.
+   */
+  public void record(long value, long count) {
+    long v = Math.max(0, value);
+    counts.addAndGet(bucketOf(v), count);
+    totalCount.add(count);
+    totalValue.add(v * count);
+    long max = maxValue.get();
+    while (v > max && !maxValue.compareAndSet(max, v)) {
+      max = maxValue.get();
+    }
+  }
+
+  public long getCount() {
+    return totalCount.sum();
+  }
+
+  public long getMax() {
+    return maxValue.get();
+  }
+
+  public double getMean() {
+    long count = totalCount.sum();
+    return count == 0 ? 0 : (double) totalValue.sum() / count;
+  }
+
+  /**
+   * 百分位数的近似值.
+   *
+   * @param percentile 0 到 100 之间
+   * @return 不小于该百分位上真实值的桶上界, 没有记录时返回 0
+   */
+  public long getValueAtPercentile(double percentile) {
+    long count = 0;
+    long[] snapshot = new long[BUCKETS];
+    for (int i = 0; i < BUCKETS; i++) {
+      snapshot[i] = counts.get(i);
+      count += snapshot[i];
+    }
+    if (count == 0) {
+      return 0;
+    }
+    long target = Math.max(1, (long) Math.ceil(count * Math.min(100, percentile) / 100));
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += snapshot[i];
+      if (seen >= target) {
+        return Math.min(highestEquivalentValue(i), getMax());
+      }
+    }
+    return getMax();
+  }
+
+  static int bucketOf(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    int magnitude = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+    int shift = magnitude - SUB_BUCKET_BITS;
+    int subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+    return SUB_BUCKETS + shift * SUB_BUCKETS + subBucket;
+  }
+
+  private static long lowestEquivalentValue(int bucket) {
+    if (bucket < SUB_BUCKETS) {
+      return bucket;
+    }
+    int shift = (bucket - SUB_BUCKETS) / SUB_BUCKETS;
+    long subBucket = (bucket - SUB_BUCKETS) % SUB_BUCKETS;
+    return (SUB_BUCKETS | subBucket) << shift;
+  }
+
+  private static long highestEquivalentValue(int bucket) {
+    return bucket + 1 < BUCKETS ? lowestEquivalentValue(bucket + 1) - 1 : Long.MAX_VALUE;
+  }
+}
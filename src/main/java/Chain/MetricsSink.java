@@ -0,0 +1,16 @@
+package Chain;
+
+/**
+ * 处理链指标的输出目标, 例如日志或监控系统.
+ */
+@FunctionalInterface
+public interface MetricsSink {
+
+  /**
+   * 输出一个处理者的指标.
+   *
+   * @param handler 处理者
+   * @param metrics 该处理者的指标
+   */
+  void report(RequestHandler handler, HandlerMetrics metrics);
+}
@@ -1,5 +1,7 @@
 package Chain;
 
+import java.util.List;
+
 /**
  * 兽人指挥官处理类.
  */
@@ -10,12 +12,18 @@ public class OrcCommander extends RequestHandler {
   }
 
   @Override
-  public void handleRequest(Request req) {
-    if (RequestType.DEFEND_CASTLE == req.getRequestType()) {
-      printHandling(req);
+  protected boolean canHandle(RequestType requestType) {
+    return RequestType.DEFEND_CASTLE == requestType;
+  }
+
+  /**
+   * 整批只记录一次日志.
+   */
+  @Override
+  protected void handleAll(List<Request> reqs) {
+    printBatchHandling(reqs);
+    for (Request req : reqs) {
       req.markHandled();
-    } else {
-      super.handleRequest(req);
     }
   }
 
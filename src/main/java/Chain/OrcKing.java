@@ -2,13 +2,26 @@ package Chain;
 
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+
 /**
  * 兽人国王发出处理链请求
+ *
+ * <p>处理链可以在运行中增加、移除、调整顺序。每次修改都复制出一条新的 {@link HandlerChain} 并原子地替换,
+ * 分发请求时只读取一次当前的链, 不加锁; 正在处理的请求在旧链上完成。
+ * 由国王管理的链按列表顺序分发, 不使用处理者自身的 next 引用, 因此新加入的处理者可以以 null 作为下一个处理类创建。
  */
 @Slf4j
 public class OrcKing {
 
-    private RequestHandler chain;
+    private final AtomicReference<HandlerChain> chain = new AtomicReference<>();
+
+    // 每个线程一个请求池, 供不产生分配的 makeRequest(RequestType, String) 使用
+    private final ThreadLocal<RequestPool> requestPool = ThreadLocal.withInitial(() -> new RequestPool(16));
 
     public OrcKing() {
         buildChain();
@@ -16,13 +29,98 @@ public class OrcKing {
 
     private void buildChain() {
         // 定义了一个处理类,层级层次为: 指挥官 -> 中士 -> 士兵
-        chain = new OrcCommander(new OrcOfficer(new OrcSoldier(null)));
+        // 建链时预先算好每种请求类型对应的处理者, 分发时只需查表
+        HandlerChain initial = HandlerChain.of(new OrcCommander(new OrcOfficer(new OrcSoldier(null))));
+        initial.attach();
+        chain.set(initial);
     }
 
     // 处理请求
     public void makeRequest(Request req) {
-        LOGGER.info("兽人国王下达命令: " + req.getRequestDescription());
-        chain.handleRequest(req);
+        LOGGER.info("兽人国王下达命令: {}", req.getRequestDescription());
+        chain.get().dispatch(req);
+    }
+
+    // 使用池化的请求对象处理请求, 日志未开启时不产生任何分配, 返回请求是否被处理
+    public boolean makeRequest(RequestType requestType, String requestDescription) {
+        RequestPool pool = requestPool.get();
+        Request req = pool.acquire(requestType, requestDescription);
+        try {
+            makeRequest(req);
+            return req.isHandled();
+        } finally {
+            pool.release(req);
+        }
+    }
+
+    // 批量处理请求, 每个处理者一次拿到自己负责的全部请求
+    public void makeRequests(Collection<Request> reqs) {
+        LOGGER.info("兽人国王下达 {} 条命令", reqs.size());
+        chain.get().dispatchBatch(reqs);
+    }
+
+    // 把链上每个处理者的指标输出到给定的目标
+    public void reportMetrics(MetricsSink sink) {
+        for (RequestHandler handler : chain.get().getHandlers()) {
+            sink.report(handler, handler.getMetrics());
+        }
+    }
+
+    // 当前链上的处理者, 按分发顺序排列
+    public List<RequestHandler> getHandlers() {
+        return chain.get().getHandlers();
+    }
+
+    // 在链尾增加处理者
+    public void addHandler(RequestHandler handler) {
+        updateChain(handlers -> {
+            handlers.add(handler);
+            return true;
+        });
+    }
+
+    // 在指定位置插入处理者
+    public void addHandler(int index, RequestHandler handler) {
+        updateChain(handlers -> {
+            handlers.add(index, handler);
+            return true;
+        });
+    }
+
+    // 移除处理者, 处理者不在链上时返回 false
+    public boolean removeHandler(RequestHandler handler) {
+        return updateChain(handlers -> handlers.remove(handler));
+    }
+
+    // 以给定的顺序替换整条链, 可用于调整顺序
+    public void setHandlers(List<RequestHandler> handlers) {
+        updateChain(current -> {
+            current.clear();
+            current.addAll(handlers);
+            return true;
+        });
+    }
+
+    /**
+     * 复制当前链上的处理者列表并修改, 修改生效时用 CAS 发布新链, 与其他修改冲突时重试.
+     *
+     * @param change 修改处理者列表, 返回 false 表示无需修改
+     * @return change 的返回值
+     */
+    private boolean updateChain(Predicate<List<RequestHandler>> change) {
+        while (true) {
+            HandlerChain current = chain.get();
+            List<RequestHandler> handlers = new ArrayList<>(current.getHandlers());
+            if (!change.test(handlers)) {
+                return false;
+            }
+            HandlerChain next = new HandlerChain(handlers);
+            if (chain.compareAndSet(current, next)) {
+                // 只有发布成功的链才登记到处理者的指标上
+                next.attach();
+                return true;
+            }
+        }
     }
 
 }
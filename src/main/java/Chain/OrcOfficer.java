@@ -1,5 +1,7 @@
 package Chain;
 
+import java.util.List;
+
 /**
  * 兽人中士处理类.
  */
@@ -10,12 +12,18 @@ public class OrcOfficer extends RequestHandler {
   }
 
   @Override
-  public void handleRequest(Request req) {
-    if (RequestType.TORTURE_PRISONER == req.getRequestType()) {
-      printHandling(req);
+  protected boolean canHandle(RequestType requestType) {
+    return RequestType.TORTURE_PRISONER == requestType;
+  }
+
+  /**
+   * 整批只记录一次日志.
+   */
+  @Override
+  protected void handleAll(List<Request> reqs) {
+    printBatchHandling(reqs);
+    for (Request req : reqs) {
       req.markHandled();
-    } else {
-      super.handleRequest(req);
     }
   }
 
@@ -13,16 +13,16 @@ public class Request {
    * 请求的类型，链中每个处理者通过它来判断是否执行命令。
    */
   @Getter
-  private final RequestType requestType;
+  private RequestType requestType;
 
   /**
    * 命令
    */
   @Getter
-  private final String requestDescription;
+  private String requestDescription;
 
   /**
-   * 标示是否处理过。请求只能从未处理状态切换到已处理状态，无法“取消处理”请求。
+   * 标示是否处理过。请求只能从未处理状态切换到已处理状态，无法“取消处理”请求; 只有 {@link RequestPool} 回收请求时会重置。
    */
   @Getter
   private boolean handled;
@@ -38,6 +38,15 @@ public class Request {
     this.requestDescription = Objects.requireNonNull(requestDescription);
   }
 
+  /**
+   * 供 {@link RequestPool} 复用请求对象时重置全部状态
+   */
+  void reset(final RequestType requestType, final String requestDescription) {
+    this.requestType = Objects.requireNonNull(requestType);
+    this.requestDescription = Objects.requireNonNull(requestDescription);
+    this.handled = false;
+  }
+
   /**
    * 标记处理过
    */
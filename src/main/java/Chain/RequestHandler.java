@@ -3,14 +3,23 @@ package Chain;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
 /**
  * 处理基类
+ *
+ * <p>子类通过 {@link #canHandle(RequestType)} 声明自己负责的请求类型, 判断只能依赖请求类型,
+ * 这样 {@link HandlerChain} 才能在建链时预先算出每种类型对应的处理者。
  */
 @Slf4j
 public abstract class RequestHandler {
 
   private final RequestHandler next;
 
+  private final HandlerMetrics metrics = new HandlerMetrics();
+
   /**
    * 构造方法,接收下一个处理类
    * @param next
@@ -19,12 +28,92 @@ public abstract class RequestHandler {
     this.next = next;
   }
 
+  RequestHandler getNext() {
+    return next;
+  }
+
+  /**
+   * 该处理者的调用次数、命中率、传递次数和处理耗时
+   */
+  public HandlerMetrics getMetrics() {
+    return metrics;
+  }
+
   /**
-   * 接收请求
+   * 是否负责处理该类型的请求
+   */
+  protected abstract boolean canHandle(RequestType requestType);
+
+  /**
+   * 处理一个属于自己的请求
+   */
+  protected void handle(Request req) {
+    printHandling(req);
+    req.markHandled();
+  }
+
+  /**
+   * 接收请求, 自己不负责时交给下一个处理类
    */
   public void handleRequest(Request req) {
-    if (next != null) {
-      next.handleRequest(req);
+    if (canHandle(req.getRequestType())) {
+      timedHandle(req);
+    } else {
+      metrics.recordPassThrough();
+      if (next != null) {
+        next.handleRequest(req);
+      }
+    }
+  }
+
+  /**
+   * 处理请求并记录命中次数和耗时
+   */
+  final void timedHandle(Request req) {
+    long start = System.nanoTime();
+    handle(req);
+    metrics.recordMatch(System.nanoTime() - start);
+  }
+
+  /**
+   * 批量处理请求并记录命中次数和耗时
+   */
+  final void timedHandleAll(List<Request> reqs) {
+    long start = System.nanoTime();
+    handleAll(reqs);
+    metrics.recordMatches(reqs.size(), System.nanoTime() - start);
+  }
+
+  /**
+   * 批量处理属于自己的请求, 默认逐个调用 {@link #handle(Request)}. 能够合并处理(例如整批只记录一次日志)的子类可以重写该方法.
+   */
+  protected void handleAll(List<Request> reqs) {
+    for (Request req : reqs) {
+      handle(req);
+    }
+  }
+
+  /**
+   * 批量接收请求, 自己负责的请求一次性处理, 其余的整批交给下一个处理类
+   */
+  public void handleBatch(Collection<Request> reqs) {
+    List<Request> own = new ArrayList<>();
+    List<Request> rest = new ArrayList<>();
+    for (Request req : reqs) {
+      if (canHandle(req.getRequestType())) {
+        own.add(req);
+      } else {
+        rest.add(req);
+      }
+    }
+    if (!own.isEmpty()) {
+      timedHandleAll(own);
+    }
+    if (!rest.isEmpty()) {
+      metrics.recordPassThroughs(rest.size());
+      if (next != null) {
+        next.handleBatch(rest);
+      }
     }
   }
 
@@ -32,6 +121,10 @@ public abstract class RequestHandler {
     LOGGER.info("{} 处理请求 \"{}\"", this, req);
   }
 
+  protected void printBatchHandling(List<Request> reqs) {
+    LOGGER.info("{} 批量处理 {} 个请求", this, reqs.size());
+  }
+
   @Override
   public abstract String toString();
 }
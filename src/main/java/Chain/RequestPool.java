@@ -0,0 +1,47 @@
+package Chain;
+
+/**
+ * 可复用的请求对象池.
+ *
+ * <p>{@link #acquire(RequestType, String)} 优先取出已归还的请求并重置其类型、描述和处理状态, 池中没有空闲对象时才新建;
+ * 稳定运行后不再产生新的 {@link Request}。池不是线程安全的, 每个线程应使用自己的池。
+ */
+public class RequestPool {
+
+  private final Request[] free;
+  private int size;
+
+  /**
+   * 构造方法.
+   *
+   * @param capacity 最多保留的空闲请求数, 超出时归还的请求直接丢弃
+   */
+  public RequestPool(int capacity) {
+    this.free = new Request[capacity];
+  }
+
+  /**
+   * 取出一个请求.
+   *
+   * @param requestType        请求类型
+   * @param requestDescription 请求命令描述
+   */
+  public Request acquire(RequestType requestType, String requestDescription) {
+    if (size == 0) {
+      return new Request(requestType, requestDescription);
+    }
+    Request req = free[--size];
+    free[size] = null;
+    req.reset(requestType, requestDescription);
+    return req;
+  }
+
+  /**
+   * 归还请求, 归还后调用方不得再使用它.
+   */
+  public void release(Request req) {
+    if (size < free.length) {
+      free[size++] = req;
+    }
+  }
+}
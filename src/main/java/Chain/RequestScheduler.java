@@ -0,0 +1,244 @@
+package Chain;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToIntFunction;
+
+/**
+ * 位于处理链之前的优先级调度器。
+ *
+ * <p>请求按由 {@link RequestType} 得到的优先级排队(数值越小越优先, 同优先级先进先出), 由固定数量的工作线程取出后交给
+ * {@link OrcKing} 处理。默认按枚举声明顺序排序, 因此 {@link RequestType#DEFEND_CASTLE} 不会排在积压的
+ * {@link RequestType#COLLECT_TAX} 后面; 代价是高优先级请求持续到达时低优先级请求需要等待。
+ *
+ * <p>队列无界, 已提交的请求一定会被处理: {@link #shutdown()} 之后不再接受新请求, 但工作线程会处理完队列中剩余的请求才退出。
+ * {@link #shutdownNow()} 强制停止, 尚未开始处理的请求作为返回值交还调用方, 它们的 future 被取消, 不会被悄悄丢弃。
+ * 工作线程不是守护线程, 使用完毕后必须调用其中之一, 否则 JVM 无法退出。
+ * 可以按请求类型查询排队数量和等待时间。
+ */
+public class RequestScheduler {
+
+  // 队列为空时工作线程检查是否已关闭的间隔
+  private static final long POLL_MILLIS = 50;
+
+  private final OrcKing king;
+  private final ToIntFunction<RequestType> priority;
+  private final PriorityBlockingQueue<Task> queue = new PriorityBlockingQueue<>();
+  private final AtomicLong sequence = new AtomicLong();
+  // 已提交但尚未处理完的请求数, 工作线程只有在关闭后且该值为 0 时才退出
+  private final AtomicInteger pending = new AtomicInteger();
+  private final Map<RequestType, AtomicInteger> queueDepths = new EnumMap<>(RequestType.class);
+  private final Map<RequestType, LatencyHistogram> waitTimes = new EnumMap<>(RequestType.class);
+  private final Thread[] workers;
+  private volatile boolean shutdown;
+
+  /**
+   * 按 {@link RequestType} 声明顺序排定优先级.
+   *
+   * @param king    处理请求的兽人国王
+   * @param workers 工作线程数
+   */
+  public RequestScheduler(OrcKing king, int workers) {
+    this(king, workers, Enum::ordinal, Executors.defaultThreadFactory());
+  }
+
+  /**
+   * 构造方法.
+   *
+   * @param king          处理请求的兽人国王
+   * @param workers       工作线程数
+   * @param priority      请求类型的优先级, 数值越小越先处理
+   * @param threadFactory 创建工作线程
+   */
+  public RequestScheduler(OrcKing king, int workers, ToIntFunction<RequestType> priority,
+                          ThreadFactory threadFactory) {
+    if (workers < 1) {
+      throw new IllegalArgumentException("workers must be positive.");
+    }
+    this.king = king;
+    this.priority = priority;
+    for (RequestType type : RequestType.values()) {
+      queueDepths.put(type, new AtomicInteger());
+      waitTimes.put(type, new LatencyHistogram());
+    }
+    this.workers = new Thread[workers];
+    for (int i = 0; i < workers; i++) {
+      this.workers[i] = threadFactory.newThread(this::runWorker);
+      this.workers[i].start();
+    }
+  }
+
+  /**
+   * 提交请求.
+   *
+   * @param req 请求
+   * @return 处理结束后以该请求完成的 future
+   * @throws IllegalStateException 调度器已关闭时
+   */
+  public CompletableFuture<Request> submit(Request req) {
+    // 先完成可能抛出异常的准备工作, 之后才计入 pending
+    RequestType type = req.getRequestType();
+    Task task = new Task(req, priority.applyAsInt(type), sequence.getAndIncrement());
+    AtomicInteger depth = queueDepths.get(type);
+    pending.incrementAndGet();
+    boolean queued = false;
+    try {
+      if (shutdown) {
+        throw new IllegalStateException("Scheduler has been shut down.");
+      }
+      depth.incrementAndGet();
+      queue.add(task);
+      queued = true;
+    } finally {
+      if (!queued) {
+        pending.decrementAndGet();
+      }
+    }
+    return task.future;
+  }
+
+  /**
+   * 不再接受新请求, 已提交的请求会继续处理完.
+   */
+  public void shutdown() {
+    shutdown = true;
+  }
+
+  /**
+   * 不再接受新请求, 取出所有尚未开始处理的请求并中断工作线程. 正在处理的请求会处理完.
+   *
+   * @return 未处理的请求, 按优先级排列; 它们的 future 已被取消
+   */
+  public List<Request> shutdownNow() {
+    shutdown = true;
+    List<Task> drained = new ArrayList<>();
+    queue.drainTo(drained);
+    List<Request> unprocessed = new ArrayList<>(drained.size());
+    for (Task task : drained) {
+      queueDepths.get(task.request.getRequestType()).decrementAndGet();
+      task.future.cancel(false);
+      unprocessed.add(task.request);
+      pending.decrementAndGet();
+    }
+    for (Thread worker : workers) {
+      worker.interrupt();
+    }
+    return unprocessed;
+  }
+
+  /**
+   * 等待所有工作线程退出.
+   *
+   * @return 超时前全部退出时返回 true
+   */
+  public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    long deadline = System.nanoTime() + unit.toNanos(timeout);
+    for (Thread worker : workers) {
+      long remaining = deadline - System.nanoTime();
+      if (remaining > 0) {
+        TimeUnit.NANOSECONDS.timedJoin(worker, remaining);
+      }
+      if (worker.isAlive()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * 排队中的请求总数.
+   */
+  public int getQueueDepth() {
+    return queue.size();
+  }
+
+  /**
+   * 排队中的某类请求数.
+   */
+  public int getQueueDepth(RequestType type) {
+    return queueDepths.get(type).get();
+  }
+
+  /**
+   * 某类请求从提交到开始处理的等待时间, 单位纳秒.
+   */
+  public LatencyHistogram getWaitTime(RequestType type) {
+    return waitTimes.get(type);
+  }
+
+  private void runWorker() {
+    boolean interrupted = false;
+    try {
+      while (true) {
+        Task task;
+        try {
+          task = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+          // 不因中断丢弃已接受的请求, 记下中断, 关闭且队列清空后退出
+          interrupted = true;
+          task = null;
+        }
+        if (task == null) {
+          if (shutdown && pending.get() == 0) {
+            return;
+          }
+          continue;
+        }
+        process(task);
+      }
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private void process(Task task) {
+    RequestType type = task.request.getRequestType();
+    queueDepths.get(type).decrementAndGet();
+    waitTimes.get(type).record(System.nanoTime() - task.enqueuedNanos);
+    try {
+      king.makeRequest(task.request);
+      task.future.complete(task.request);
+    } catch (RuntimeException e) {
+      task.future.completeExceptionally(e);
+    } finally {
+      pending.decrementAndGet();
+    }
+  }
+
+  /**
+   * 队列中的请求, 先按优先级, 再按提交顺序排序.
+   */
+  private static final class Task implements Comparable<Task> {
+
+    private final Request request;
+    private final int priority;
+    private final long sequence;
+    private final long enqueuedNanos = System.nanoTime();
+    private final CompletableFuture<Request> future = new CompletableFuture<>();
+
+    private Task(Request request, int priority, long sequence) {
+      this.request = request;
+      this.priority = priority;
+      this.sequence = sequence;
+    }
+
+    @Override
+    public int compareTo(Task other) {
+      if (priority != other.priority) {
+        return Integer.compare(priority, other.priority);
+      }
+      return Long.compare(sequence, other.sequence);
+    }
+  }
+}
@@ -3,6 +3,9 @@ package Composite;
 import lombok.extern.slf4j.Slf4j;
 import lombok.var;
 
+import java.io.IOException;
+import java.io.StringReader;
+
 /**
  * 将对象组合成树结构以表示部分整体层次结构。 组合可以使客户统一对待单个对象和组合对象。
  *
@@ -13,7 +16,7 @@ import lombok.var;
 public class App {
 
 
-  public static void main(String[] args) {
+  public static void main(String[] args) throws IOException {
 
     var messenger = new Messenger();
 
@@ -22,5 +25,8 @@ public class App {
 
     LOGGER.info("来自精灵的消息: ");
     messenger.messageFromElves().print();
+
+    LOGGER.info("逐句读取的消息: ");
+    new SentenceReader().read(new StringReader("Where there is a whip. There is a way!"), Sentence::print);
   }
 }
@@ -0,0 +1,82 @@
+package Composite;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * 把追加的字符直接编码写入 {@link ByteBuffer} 的 {@link Appendable}.
+ *
+ * <p>字符先暂存在一个小的定长缓冲区中, 满了再交给 {@link CharsetEncoder}, 跨两次追加的代理对也能正确编码.
+ * 无法编码的字符以替换字符输出. 写完后必须调用 {@link #finish()}.
+ */
+class ByteBufferAppendable implements Appendable {
+
+  private static final int PENDING_SIZE = 1024;
+
+  private final CharsetEncoder encoder;
+  private final ByteBuffer out;
+  private final CharBuffer pending = CharBuffer.allocate(PENDING_SIZE);
+
+  ByteBufferAppendable(Charset charset, ByteBuffer out) {
+    this.encoder = charset.newEncoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    this.out = out;
+  }
+
+  /**
+   * 编码每个字符最多产生的字节数.
+   */
+  float maxBytesPerChar() {
+    return encoder.maxBytesPerChar();
+  }
+
+  @Override
+  public Appendable append(CharSequence csq) {
+    return append(csq, 0, csq.length());
+  }
+
+  @Override
+  public Appendable append(CharSequence csq, int start, int end) {
+    for (int i = start; i < end; i++) {
+      append(csq.charAt(i));
+    }
+    return this;
+  }
+
+  @Override
+  public Appendable append(char c) {
+    if (!pending.hasRemaining()) {
+      drain(false);
+    }
+    pending.put(c);
+    return this;
+  }
+
+  /**
+   * 编码剩余的字符并结束编码.
+   *
+   * @throws BufferOverflowException 缓冲区剩余空间不足时
+   */
+  void finish() {
+    drain(true);
+    if (encoder.flush(out).isOverflow()) {
+      throw new BufferOverflowException();
+    }
+  }
+
+  private void drain(boolean endOfInput) {
+    pending.flip();
+    CoderResult result = encoder.encode(pending, out, endOfInput);
+    if (result.isOverflow()) {
+      throw new BufferOverflowException();
+    }
+    // 未编码的高位代理留到下一次
+    pending.compact();
+  }
+}
@@ -0,0 +1,79 @@
+package Composite;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 用显式栈深度优先遍历 {@link LetterComposite}, 不依赖方法递归, 任意深度的嵌套都不会栈溢出。
+ *
+ * <p>进入节点时调用 {@link Visitor#before(LetterComposite)}, 其所有子节点处理完后调用 {@link Visitor#after(LetterComposite)},
+ * 与 {@link LetterComposite#printThisBefore(Appendable)} / {@link LetterComposite#printThisAfter(Appendable)} 的调用时机一致。
+ */
+public final class CompositeTraversal {
+
+  private static final int INITIAL_DEPTH = 16;
+
+  private CompositeTraversal() {
+  }
+
+  /**
+   * 遍历回调.
+   */
+  public interface Visitor {
+
+    /**
+     * 进入节点.
+     *
+     * @param node 当前节点
+     * @return false 时跳过该节点的子节点, 但仍会调用 {@link #after(LetterComposite)}
+     */
+    boolean before(LetterComposite node) throws IOException;
+
+    /**
+     * 离开节点.
+     *
+     * @param node 当前节点
+     */
+    void after(LetterComposite node) throws IOException;
+  }
+
+  /**
+   * 从 root 开始遍历.
+   *
+   * @param root    根节点
+   * @param visitor 遍历回调
+   */
+  public static void traverse(LetterComposite root, Visitor visitor) throws IOException {
+    LetterComposite[] nodes = new LetterComposite[INITIAL_DEPTH];
+    // 每一层下一个待访问的子节点下标, 为 -1 时表示跳过子节点
+    int[] nextChild = new int[INITIAL_DEPTH];
+    int depth = 0;
+
+    nodes[depth] = root;
+    nextChild[depth] = visitor.before(root) ? 0 : -1;
+    depth++;
+
+    while (depth > 0) {
+      int top = depth - 1;
+      LetterComposite node = nodes[top];
+      List<LetterComposite> children = node.children();
+      int index = nextChild[top];
+      if (index >= 0 && index < children.size()) {
+        nextChild[top] = index + 1;
+        LetterComposite child = children.get(index);
+        if (depth == nodes.length) {
+          nodes = Arrays.copyOf(nodes, depth << 1);
+          nextChild = Arrays.copyOf(nextChild, depth << 1);
+        }
+        nodes[depth] = child;
+        nextChild[depth] = visitor.before(child) ? 0 : -1;
+        depth++;
+      } else {
+        visitor.after(node);
+        nodes[top] = null;
+        depth--;
+      }
+    }
+  }
+}
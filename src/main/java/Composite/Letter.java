@@ -1,5 +1,6 @@
 package Composite;
 
+import java.io.IOException;
 
 /**
  * 字母.
@@ -12,8 +13,22 @@ public class Letter extends LetterComposite {
     this.character = character;
   }
 
+  char getCharacter() {
+    return character;
+  }
+
+  @Override
+  protected int ownLetterCount() {
+    return 1;
+  }
+
+  @Override
+  protected int ownRenderedLength() {
+    return 1;
+  }
+
   @Override
-  protected void printThisBefore() {
-    System.out.print(character);
+  protected void printThisBefore(Appendable out) throws IOException {
+    out.append(character);
   }
 }
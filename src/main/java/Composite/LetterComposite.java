@@ -1,35 +1,273 @@
 package Composite;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * 组合抽象
+ *
+ * <p>{@link #render(Appendable)} 遍历一次整棵树, 把内容写入调用方提供的缓冲区; {@link #print()} 先渲染到内存, 再一次性输出到标准输出。
  */
 public abstract class LetterComposite {
 
-  private final List<LetterComposite> children = new ArrayList<>();
+  // 后序遍历时重新计算失效的聚合值, 缓存仍有效的子树会被跳过
+  private static final CompositeTraversal.Visitor AGGREGATOR = new CompositeTraversal.Visitor() {
+    @Override
+    public boolean before(LetterComposite node) {
+      return !node.aggregated;
+    }
 
+    @Override
+    public void after(LetterComposite node) {
+      if (!node.aggregated) {
+        node.aggregateFromChildren();
+      }
+    }
+  };
+
+  // 第一次 add 时才创建, 叶子节点不持有空列表
+  private List<LetterComposite> children;
+  private LetterComposite parent;
+
+  // 子树聚合值缓存, aggregated 为 false 时需要重新计算
+  private boolean aggregated;
+  private int letterCount;
+  private int wordCount;
+  private int renderedLength;
+
+  /**
+   * 增加子节点. 每个节点只能属于一个父节点, 否则父节点的聚合值缓存无法在子树变化时全部失效.
+   *
+   * @throws IllegalArgumentException 节点已经属于其他父节点, 或者就是自身时
+   */
   public void add(LetterComposite letter) {
+    if (letter.parent != null || letter == this) {
+      throw new IllegalArgumentException("Letter already belongs to a composite.");
+    }
+    if (children == null) {
+      children = new ArrayList<>();
+    }
     children.add(letter);
+    letter.parent = this;
+    invalidateAggregates();
+  }
+
+  /**
+   * 使自身及祖先的聚合值缓存失效, 节点自身内容变化时由子类调用.
+   * 祖先的缓存有效时其后代的缓存也一定有效, 所以遇到已失效的节点即可停止.
+   */
+  protected void invalidateAggregates() {
+    for (LetterComposite node = this; node != null && node.aggregated; node = node.parent) {
+      node.aggregated = false;
+    }
   }
 
   public int count() {
-    return children.size();
+    return children == null ? 0 : children.size();
+  }
+
+  List<LetterComposite> children() {
+    return children == null ? Collections.<LetterComposite>emptyList() : children;
+  }
+
+  /**
+   * 子树中的字母总数, 结果会被缓存直到子树发生变化.
+   */
+  public int letterCount() {
+    aggregate();
+    return letterCount;
+  }
+
+  /**
+   * 子树中的单词总数, 结果会被缓存直到子树发生变化.
+   */
+  public int wordCount() {
+    aggregate();
+    return wordCount;
+  }
+
+  /**
+   * 渲染结果的字符数, 可以用来预先分配缓冲区; 结果会被缓存直到子树发生变化.
+   */
+  public int renderedLength() {
+    aggregate();
+    return renderedLength;
+  }
+
+  private void aggregate() {
+    if (aggregated) {
+      return;
+    }
+    try {
+      CompositeTraversal.traverse(this, AGGREGATOR);
+    } catch (IOException e) {
+      // 聚合过程不做任何 IO
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * 由自身和子节点的缓存值计算聚合值, 调用前子节点的缓存必须有效.
+   */
+  private void aggregateFromChildren() {
+    int letters = ownLetterCount();
+    int words = ownWordCount();
+    int length = ownRenderedLength();
+    if (children != null) {
+      for (LetterComposite child : children) {
+        letters += child.letterCount;
+        words += child.wordCount;
+        length += child.renderedLength;
+      }
+    }
+    letterCount = letters;
+    wordCount = words;
+    renderedLength = length;
+    aggregated = true;
+  }
+
+  /**
+   * 节点自身(不含子节点)包含的字母数.
+   */
+  protected int ownLetterCount() {
+    return 0;
+  }
+
+  /**
+   * 节点自身(不含子节点)包含的单词数.
+   */
+  protected int ownWordCount() {
+    return 0;
+  }
+
+  /**
+   * 节点自身的前后钩子输出的字符数, 重写钩子时必须同时重写该方法.
+   */
+  protected int ownRenderedLength() {
+    return 0;
+  }
+
+  protected void printThisBefore(Appendable out) throws IOException {
+  }
+
+  protected void printThisAfter(Appendable out) throws IOException {
+  }
+
+  /**
+   * 渲染到给定的输出.
+   *
+   * @param out 输出目标, 例如 {@link StringBuilder}
+   */
+  public void render(final Appendable out) throws IOException {
+    CompositeTraversal.traverse(this, new CompositeTraversal.Visitor() {
+      @Override
+      public boolean before(LetterComposite node) throws IOException {
+        node.printThisBefore(out);
+        return true;
+      }
+
+      @Override
+      public void after(LetterComposite node) throws IOException {
+        node.printThisAfter(out);
+      }
+    });
   }
 
-  protected void printThisBefore() {
+  /**
+   * 以 UTF-8 编码渲染到给定的缓冲区, 遍历时直接编码写入, 不经过中间字符串.
+   *
+   * <p>写入前先检查剩余空间: 按 {@link #renderedLength()} 估算的上限放得下时直接写入, 否则先遍历一次计算准确的字节数.
+   * 空间不足时不写入任何内容.
+   *
+   * @param out 输出缓冲区
+   * @throws BufferOverflowException 缓冲区剩余空间不足时
+   */
+  public void render(ByteBuffer out) {
+    ByteBufferAppendable encoder = new ByteBufferAppendable(StandardCharsets.UTF_8, out);
+    try {
+      if ((long) Math.ceil(renderedLength() * (double) encoder.maxBytesPerChar()) > out.remaining()) {
+        Utf8Counter counter = new Utf8Counter();
+        render(counter);
+        if (counter.bytes > out.remaining()) {
+          throw new BufferOverflowException();
+        }
+      }
+      render(encoder);
+    } catch (IOException e) {
+      // 两个 Appendable 都不会抛出 IOException
+      throw new UncheckedIOException(e);
+    }
+    encoder.finish();
   }
 
-  protected void printThisAfter() {
+  /**
+   * 在给定的 {@link ForkJoinPool} 上并行渲染。按子树的渲染长度拆分成区间, 各区间渲染后按顺序拼接, 结果与 {@link #print()} 输出一致.
+   *
+   * @param pool 执行渲染任务的线程池
+   * @return 渲染结果
+   */
+  public String renderParallel(ForkJoinPool pool) {
+    // 先在当前线程算好聚合值, 渲染任务只读取缓存
+    aggregate();
+    return pool.invoke(new RenderTask(this)).toString();
   }
 
   /**
    * Print.
    */
   public void print() {
-    printThisBefore();
-    children.forEach(LetterComposite::print);
-    printThisAfter();
+    System.out.print(renderToString());
+  }
+
+  /**
+   * 统计 UTF-8 编码后的字节数. 孤立的代理字符按 2 字节计算, 比实际输出的替换字符多, 结果是上限.
+   */
+  private static final class Utf8Counter implements Appendable {
+
+    private long bytes;
+
+    @Override
+    public Appendable append(CharSequence csq) {
+      return append(csq, 0, csq.length());
+    }
+
+    @Override
+    public Appendable append(CharSequence csq, int start, int end) {
+      for (int i = start; i < end; i++) {
+        append(csq.charAt(i));
+      }
+      return this;
+    }
+
+    @Override
+    public Appendable append(char c) {
+      if (c < 0x80) {
+        bytes += 1;
+      } else if (c < 0x800 || Character.isSurrogate(c)) {
+        // 代理对共 4 字节, 每个代理字符计 2 字节
+        bytes += 2;
+      } else {
+        bytes += 3;
+      }
+      return this;
+    }
+  }
+
+  String renderToString() {
+    StringBuilder out = new StringBuilder(renderedLength());
+    try {
+      render(out);
+    } catch (IOException e) {
+      // StringBuilder 不会抛出 IOException
+      throw new UncheckedIOException(e);
+    }
+    return out.toString();
   }
 }
@@ -0,0 +1,159 @@
+package Composite;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * 并行渲染任务. 渲染一个节点, 或者一个节点的 [from, to) 区间内的子节点.
+ *
+ * <p>按子树的渲染长度 ({@link LetterComposite#renderedLength()}) 而不是子节点数量拆分, 因此子节点很少但每个都很大的树也能分给多个线程;
+ * 区间按长度对半拆分, 较小的一半交给其他线程, 较大的一半在当前线程继续拆分, 最终结果写入按聚合长度预先分配的缓冲区.
+ */
+class RenderTask extends RecursiveTask<StringBuilder> {
+
+  private static final long serialVersionUID = 1L;
+
+  // 渲染长度不超过该字符数时在当前线程内顺序渲染
+  private static final int THRESHOLD = 16 * 1024;
+
+  private final LetterComposite node;
+  private final int from;
+  private final int to;
+  // true 表示渲染整个节点(包含前后钩子), false 表示只渲染子节点区间
+  private final boolean whole;
+  // 该任务输出的字符数
+  private final int length;
+
+  RenderTask(LetterComposite node) {
+    this(node, 0, node.children().size(), true, node.renderedLength());
+  }
+
+  private RenderTask(LetterComposite node, int from, int to, boolean whole, int length) {
+    this.node = node;
+    this.from = from;
+    this.to = to;
+    this.whole = whole;
+    this.length = length;
+  }
+
+  @Override
+  protected StringBuilder compute() {
+    StringBuilder out = new StringBuilder(length);
+    try {
+      computeInto(out);
+    } catch (IOException e) {
+      // StringBuilder 不会抛出 IOException
+      throw new UncheckedIOException(e);
+    }
+    return out;
+  }
+
+  /**
+   * 在当前线程把该任务的输出追加到 out.
+   *
+   * <p>不递归: 每次拆分都沿较大的一侧继续下降, 较小的一侧交给其他线程(足够小时直接渲染), 并按位置放入前、后两组片段中,
+   * 最后按顺序拼接. 交出去的部分不超过剩余长度的一半, 因此合并时嵌套执行的任务最多 O(log n) 层, 任意深的嵌套都不会耗尽线程栈.
+   */
+  private void computeInto(StringBuilder out) throws IOException {
+    // 位于当前部分之前、写在 out 之后的片段, 元素为 CharSequence 或 RenderTask, 按顺序排列
+    List<Object> before = new ArrayList<>();
+    // 位于当前部分之后的片段, 栈顶离当前部分最近
+    Deque<Object> after = new ArrayDeque<>();
+    StringBuilder segment = out;
+    LetterComposite current = node;
+    int start = from;
+    int end = to;
+    boolean currentWhole = whole;
+    int remaining = length;
+    while (true) {
+      if (remaining <= THRESHOLD) {
+        if (currentWhole) {
+          current.render(segment);
+        } else {
+          renderChildren(current, start, end, segment);
+        }
+        break;
+      }
+      if (currentWhole) {
+        current.printThisBefore(segment);
+        StringBuilder hookAfter = new StringBuilder();
+        current.printThisAfter(hookAfter);
+        if (hookAfter.length() > 0) {
+          after.push(hookAfter);
+        }
+        remaining -= current.ownRenderedLength();
+        currentWhole = false;
+        continue;
+      }
+      List<LetterComposite> children = current.children();
+      if (end - start == 1) {
+        current = children.get(start);
+        start = 0;
+        end = current.children().size();
+        currentWhole = true;
+        remaining = current.renderedLength();
+        continue;
+      }
+      // 找到使左半部分长度接近一半的拆分点, 两侧至少各有一个子节点
+      int mid = start;
+      int leftLength = 0;
+      while (mid < end - 1 && (leftLength == 0 || leftLength * 2L < remaining)) {
+        leftLength += children.get(mid++).renderedLength();
+      }
+      int rightLength = remaining - leftLength;
+      if (leftLength <= rightLength) {
+        if (leftLength <= THRESHOLD) {
+          renderChildren(current, start, mid, segment);
+        } else {
+          before.add(forkRange(current, start, mid, leftLength));
+          segment = new StringBuilder();
+          before.add(segment);
+        }
+        start = mid;
+        remaining = rightLength;
+      } else {
+        if (rightLength <= THRESHOLD) {
+          StringBuilder piece = new StringBuilder(rightLength);
+          renderChildren(current, mid, end, piece);
+          after.push(piece);
+        } else {
+          after.push(forkRange(current, mid, end, rightLength));
+        }
+        end = mid;
+        remaining = leftLength;
+      }
+    }
+    for (Object piece : before) {
+      appendPiece(out, piece);
+    }
+    while (!after.isEmpty()) {
+      appendPiece(out, after.pop());
+    }
+  }
+
+  private static RenderTask forkRange(LetterComposite node, int from, int to, int length) {
+    RenderTask task = new RenderTask(node, from, to, false, length);
+    task.fork();
+    return task;
+  }
+
+  private static void renderChildren(LetterComposite node, int from, int to, StringBuilder out) throws IOException {
+    List<LetterComposite> children = node.children();
+    for (int i = from; i < to; i++) {
+      children.get(i).render(out);
+    }
+  }
+
+  private static void appendPiece(StringBuilder out, Object piece) {
+    if (piece instanceof RenderTask) {
+      out.append(((RenderTask) piece).join());
+    } else {
+      out.append((CharSequence) piece);
+    }
+  }
+}
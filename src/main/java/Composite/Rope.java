@@ -0,0 +1,205 @@
+package Composite;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * 不可变的绳索(rope)字符串: 文本分块存放在叶子中, 内部节点按 AVL 规则保持平衡。
+ *
+ * <p>拼接、拆分都只创建 O(log n) 个新节点, 未变化的子树被新旧版本共享, 因此插入、删除、取子串都是 O(log n)。
+ */
+final class Rope {
+
+  // 叶子中文本块的最大长度
+  static final int MAX_LEAF = 1024;
+
+  static final Rope EMPTY = new Rope("");
+
+  // 叶子节点的文本, 内部节点为 null
+  private final String text;
+  private final Rope left;
+  private final Rope right;
+  private final int length;
+  private final int height;
+
+  private Rope(String text) {
+    this.text = text;
+    this.left = null;
+    this.right = null;
+    this.length = text.length();
+    this.height = 1;
+  }
+
+  private Rope(Rope left, Rope right) {
+    this.text = null;
+    this.left = left;
+    this.right = right;
+    this.length = left.length + right.length;
+    this.height = 1 + Math.max(left.height, right.height);
+  }
+
+  /**
+   * 由字符串构建平衡的绳索.
+   */
+  static Rope of(CharSequence chars) {
+    return build(chars, 0, chars.length());
+  }
+
+  private static Rope build(CharSequence chars, int from, int to) {
+    if (to - from <= MAX_LEAF) {
+      return from == to ? EMPTY : new Rope(chars.subSequence(from, to).toString());
+    }
+    int mid = (from + to) >>> 1;
+    return new Rope(build(chars, from, mid), build(chars, mid, to));
+  }
+
+  int length() {
+    return length;
+  }
+
+  char charAt(int index) {
+    checkIndex(index, length);
+    Rope node = this;
+    while (node.text == null) {
+      if (index < node.left.length) {
+        node = node.left;
+      } else {
+        index -= node.left.length;
+        node = node.right;
+      }
+    }
+    return node.text.charAt(index);
+  }
+
+  /**
+   * 拼接两个绳索.
+   */
+  static Rope concat(Rope left, Rope right) {
+    if (left.length == 0) {
+      return right;
+    }
+    if (right.length == 0) {
+      return left;
+    }
+    if (left.text != null && right.text != null && left.length + right.length <= MAX_LEAF) {
+      return new Rope(left.text + right.text);
+    }
+    if (left.height > right.height + 1) {
+      return balance(left.left, concat(left.right, right));
+    }
+    if (right.height > left.height + 1) {
+      return balance(concat(left, right.left), right.right);
+    }
+    return new Rope(left, right);
+  }
+
+  /**
+   * 用给定的左右子树创建节点, 高度差超过 1 时以新建节点的方式旋转.
+   */
+  private static Rope balance(Rope left, Rope right) {
+    if (left.height > right.height + 1) {
+      if (left.left.height >= left.right.height) {
+        return new Rope(left.left, new Rope(left.right, right));
+      }
+      Rope pivot = left.right;
+      return new Rope(new Rope(left.left, pivot.left), new Rope(pivot.right, right));
+    }
+    if (right.height > left.height + 1) {
+      if (right.right.height >= right.left.height) {
+        return new Rope(new Rope(left, right.left), right.right);
+      }
+      Rope pivot = right.left;
+      return new Rope(new Rope(left, pivot.left), new Rope(pivot.right, right.right));
+    }
+    return new Rope(left, right);
+  }
+
+  /**
+   * 取 [0, index) 部分.
+   */
+  Rope head(int index) {
+    if (index <= 0) {
+      return EMPTY;
+    }
+    if (index >= length) {
+      return this;
+    }
+    if (text != null) {
+      return new Rope(text.substring(0, index));
+    }
+    if (index <= left.length) {
+      return left.head(index);
+    }
+    return concat(left, right.head(index - left.length));
+  }
+
+  /**
+   * 取 [index, length) 部分.
+   */
+  Rope tail(int index) {
+    if (index <= 0) {
+      return this;
+    }
+    if (index >= length) {
+      return EMPTY;
+    }
+    if (text != null) {
+      return new Rope(text.substring(index));
+    }
+    if (index >= left.length) {
+      return right.tail(index - left.length);
+    }
+    return concat(left.tail(index), right);
+  }
+
+  Rope insert(int index, CharSequence chars) {
+    checkIndex(index, length + 1);
+    return concat(concat(head(index), of(chars)), tail(index));
+  }
+
+  Rope delete(int start, int end) {
+    checkRange(start, end, length);
+    return concat(head(start), tail(end));
+  }
+
+  Rope subRope(int start, int end) {
+    checkRange(start, end, length);
+    return tail(start).head(end - start);
+  }
+
+  /**
+   * 按顺序输出所有叶子的文本.
+   */
+  void appendTo(Appendable out) throws IOException {
+    if (text != null) {
+      out.append(text);
+    } else {
+      left.appendTo(out);
+      right.appendTo(out);
+    }
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder out = new StringBuilder(length);
+    try {
+      appendTo(out);
+    } catch (IOException e) {
+      // StringBuilder 不会抛出 IOException
+      throw new UncheckedIOException(e);
+    }
+    return out.toString();
+  }
+
+  private static void checkIndex(int index, int size) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+  }
+
+  private static void checkRange(int start, int end, int size) {
+    if (start < 0 || end > size || start > end) {
+      throw new IndexOutOfBoundsException("Range: [" + start + ", " + end + "), Size: " + size);
+    }
+  }
+}
@@ -0,0 +1,85 @@
+package Composite;
+
+import java.io.IOException;
+
+/**
+ * 以绳索({@link Rope})存放文本的可编辑文档.
+ *
+ * <p>在大文档中间插入或删除时不需要像 {@link java.util.ArrayList} 子节点那样整体移动后续元素, 插入、删除、取子串都是 O(log n)。
+ * 与 {@link Word} 一样, 文本中的每个字符都算作一个字母, {@link #count()} 返回字符数, 渲染时原样输出文本。
+ */
+public class RopeDocument extends LetterComposite {
+
+  private Rope rope;
+
+  public RopeDocument() {
+    this("");
+  }
+
+  /**
+   * 构造方法.
+   * @param text 初始文本
+   */
+  public RopeDocument(CharSequence text) {
+    this.rope = Rope.of(text);
+  }
+
+  public int length() {
+    return rope.length();
+  }
+
+  public char charAt(int index) {
+    return rope.charAt(index);
+  }
+
+  /**
+   * 在 index 处插入文本.
+   *
+   * @param index 插入位置, 0 到 {@link #length()}
+   * @param text  插入的文本
+   */
+  public void insert(int index, CharSequence text) {
+    rope = rope.insert(index, text);
+    invalidateAggregates();
+  }
+
+  /**
+   * 删除 [start, end) 区间的文本.
+   */
+  public void delete(int start, int end) {
+    rope = rope.delete(start, end);
+    invalidateAggregates();
+  }
+
+  /**
+   * 获取 [start, end) 区间的文本.
+   */
+  public String substring(int start, int end) {
+    return rope.subRope(start, end).toString();
+  }
+
+  @Override
+  public int count() {
+    return rope.length() + super.count();
+  }
+
+  @Override
+  protected int ownLetterCount() {
+    return rope.length();
+  }
+
+  @Override
+  protected int ownRenderedLength() {
+    return rope.length();
+  }
+
+  @Override
+  protected void printThisBefore(Appendable out) throws IOException {
+    rope.appendTo(out);
+  }
+
+  @Override
+  public String toString() {
+    return rope.toString();
+  }
+}
@@ -1,5 +1,6 @@
 package Composite;
 
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -15,7 +16,12 @@ public class Sentence extends LetterComposite {
   }
 
   @Override
-  protected void printThisAfter() {
-    System.out.print(".\n");
+  protected int ownRenderedLength() {
+    return 2;
+  }
+
+  @Override
+  protected void printThisAfter(Appendable out) throws IOException {
+    out.append(".\n");
   }
 }
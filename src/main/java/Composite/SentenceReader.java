@@ -0,0 +1,128 @@
+package Composite;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 从文本流中逐句构建 {@link Sentence}。
+ *
+ * <p>以空白分隔单词, 以 '.'、'!'、'?' 结束句子; 每读完一句就交给调用方并丢弃, 内存中只保留当前这一句,
+ * 因此可以处理任意大的输入。句子超过 maxWordsPerSentence 个单词时会被强制断开, 防止没有句末标点的输入占满内存;
+ * 同样, 单词超过 maxWordLength 个字符时也会被强制断开, 防止没有空白的长串(例如 base64)占满内存。
+ */
+public class SentenceReader {
+
+  public static final int DEFAULT_MAX_WORDS_PER_SENTENCE = 10000;
+
+  public static final int DEFAULT_MAX_WORD_LENGTH = 4096;
+
+  private static final int BUFFER_SIZE = 8192;
+
+  private final int maxWordsPerSentence;
+  private final int maxWordLength;
+
+  public SentenceReader() {
+    this(DEFAULT_MAX_WORDS_PER_SENTENCE);
+  }
+
+  /**
+   * 构造方法.
+   * @param maxWordsPerSentence 单句最多包含的单词数
+   */
+  public SentenceReader(int maxWordsPerSentence) {
+    this(maxWordsPerSentence, DEFAULT_MAX_WORD_LENGTH);
+  }
+
+  /**
+   * 构造方法.
+   * @param maxWordsPerSentence 单句最多包含的单词数
+   * @param maxWordLength       单词最多包含的字符数
+   */
+  public SentenceReader(int maxWordsPerSentence, int maxWordLength) {
+    if (maxWordsPerSentence < 1) {
+      throw new IllegalArgumentException("maxWordsPerSentence must be positive.");
+    }
+    if (maxWordLength < 1) {
+      throw new IllegalArgumentException("maxWordLength must be positive.");
+    }
+    this.maxWordsPerSentence = maxWordsPerSentence;
+    this.maxWordLength = maxWordLength;
+  }
+
+  /**
+   * 读取 UTF-8 编码的文件.
+   *
+   * @param file     文件
+   * @param consumer 接收每个完整的句子
+   * @return 句子数量
+   */
+  public long read(Path file, Consumer<Sentence> consumer) throws IOException {
+    try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      return read(reader, consumer);
+    }
+  }
+
+  /**
+   * 读取到流结束为止, 不关闭流.
+   *
+   * @param reader   输入
+   * @param consumer 接收每个完整的句子
+   * @return 句子数量
+   */
+  public long read(Reader reader, Consumer<Sentence> consumer) throws IOException {
+    char[] buffer = new char[BUFFER_SIZE];
+    char[] word = new char[Math.min(16, maxWordLength)];
+    int wordLength = 0;
+    // Sentence 会把单词复制到自己的子节点中, 该列表可以复用
+    List<Word> words = new ArrayList<>();
+    long sentences = 0;
+
+    int read;
+    while ((read = reader.read(buffer)) != -1) {
+      for (int i = 0; i < read; i++) {
+        char c = buffer[i];
+        boolean sentenceEnd = c == '.' || c == '!' || c == '?';
+        if (sentenceEnd || Character.isWhitespace(c)) {
+          if (wordLength > 0) {
+            words.add(new Word(word, wordLength));
+            wordLength = 0;
+          }
+          if (!words.isEmpty() && (sentenceEnd || words.size() >= maxWordsPerSentence)) {
+            consumer.accept(new Sentence(words));
+            words.clear();
+            sentences++;
+          }
+        } else {
+          if (wordLength == maxWordLength) {
+            words.add(new Word(word, wordLength));
+            wordLength = 0;
+            if (words.size() >= maxWordsPerSentence) {
+              consumer.accept(new Sentence(words));
+              words.clear();
+              sentences++;
+            }
+          } else if (wordLength == word.length) {
+            word = Arrays.copyOf(word, (int) Math.min((long) wordLength << 1, maxWordLength));
+          }
+          word[wordLength++] = c;
+        }
+      }
+    }
+
+    if (wordLength > 0) {
+      words.add(new Word(word, wordLength));
+    }
+    if (!words.isEmpty()) {
+      consumer.accept(new Sentence(words));
+      sentences++;
+    }
+    return sentences;
+  }
+}
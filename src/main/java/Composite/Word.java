@@ -1,18 +1,27 @@
 package Composite;
 
+import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
 
 /**
  * 单词.
+ *
+ * <p>字母直接保存在 char 数组中, 不再为每个字母创建一个 {@link Letter} 子节点; {@link #count()} 仍返回字母个数。
  */
 public class Word extends LetterComposite {
 
+  private final char[] letters;
+
   /**
    * 单词的构造方法.
    * @param letters 字母集合
    */
   public Word(List<Letter> letters) {
-    letters.forEach(this::add);
+    this.letters = new char[letters.size()];
+    for (int i = 0; i < this.letters.length; i++) {
+      this.letters[i] = letters.get(i).getCharacter();
+    }
   }
 
   /**
@@ -20,13 +29,41 @@ public class Word extends LetterComposite {
    * @param letters 字母数组
    */
   public Word(char... letters) {
-    for (char letter : letters) {
-      this.add(new Letter(letter));
-    }
+    this.letters = letters.clone();
+  }
+
+  /**
+   * 取字母数组的前 length 个字母构造单词.
+   */
+  Word(char[] letters, int length) {
+    this.letters = Arrays.copyOf(letters, length);
+  }
+
+  @Override
+  public int count() {
+    return letters.length + super.count();
   }
 
   @Override
-  protected void printThisBefore() {
-    System.out.print(" ");
+  protected int ownLetterCount() {
+    return letters.length;
+  }
+
+  @Override
+  protected int ownWordCount() {
+    return 1;
+  }
+
+  @Override
+  protected int ownRenderedLength() {
+    return letters.length + 1;
+  }
+
+  @Override
+  protected void printThisBefore(Appendable out) throws IOException {
+    out.append(' ');
+    for (char letter : letters) {
+      out.append(letter);
+    }
   }
 }
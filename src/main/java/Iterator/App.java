@@ -1,6 +1,9 @@
 package Iterator;
 
+import Iterator.bst.AvlTree;
 import Iterator.bst.BstIterator;
+import Iterator.bst.IntBstIterator;
+import Iterator.bst.IntTreeNode;
 import Iterator.bst.TreeNode;
 import Iterator.list.Item;
 import Iterator.list.ItemType;
@@ -28,6 +31,12 @@ public class App {
     }
   }
 
+  private static void demonstrateTreasureChestStreamForType(ItemType itemType) {
+    LOGGER.info("------------------------");
+    long count = TREASURE_CHEST.stream(itemType, true).count();
+    LOGGER.info("宝物类型 " + itemType + " 并行统计数量: " + count);
+  }
+
   private static void demonstrateBstIterator() {
     LOGGER.info("------------------------");
     LOGGER.info("BST Iterator: ");
@@ -38,6 +47,33 @@ public class App {
     }
   }
 
+  private static void demonstrateIntBstIterator() {
+    LOGGER.info("------------------------");
+    LOGGER.info("Int BST Iterator: ");
+    IntTreeNode tree = new IntTreeNode(8);
+    for (int val : new int[]{3, 10, 1, 6, 14, 4, 7, 13}) {
+      tree.insert(val);
+    }
+    IntBstIterator intBstIterator = new IntBstIterator(tree);
+    while (intBstIterator.hasNext()) {
+      LOGGER.info("Next value: " + intBstIterator.nextInt());
+    }
+  }
+
+  private static void demonstrateAvlTree() {
+    LOGGER.info("------------------------");
+    LOGGER.info("AVL Tree: ");
+    AvlTree<Integer> tree = new AvlTree<>();
+    for (int i = 1; i <= 15; i++) {
+      tree.insert(i);
+    }
+    LOGGER.info("顺序插入 15 个值后树高: " + tree.getHeight());
+    BstIterator<Integer> bstIterator = new BstIterator<>(tree.getRoot());
+    while (bstIterator.hasNext()) {
+      LOGGER.info("Next node: " + bstIterator.next().getVal());
+    }
+  }
+
   private static TreeNode<Integer> buildIntegerBst() {
     TreeNode root = new TreeNode<>(8);
 
@@ -63,7 +99,10 @@ public class App {
     demonstrateTreasureChestIteratorForType(POTION);
     demonstrateTreasureChestIteratorForType(WEAPON);
     demonstrateTreasureChestIteratorForType(ANY);
+    demonstrateTreasureChestStreamForType(POTION);
 
     demonstrateBstIterator();
+    demonstrateIntBstIterator();
+    demonstrateAvlTree();
   }
 }
@@ -10,4 +10,19 @@ public interface Iterator<T> {
   boolean hasNext();
 
   T next();
+
+  /**
+   * Fills the buffer with up to {@code buffer.length} next elements, so bulk consumers need one
+   * call per batch instead of a hasNext/next pair per element.
+   *
+   * @param buffer destination, filled from index 0
+   * @return the number of elements written, 0 when the iterator is exhausted
+   */
+  default int nextBatch(T[] buffer) {
+    int count = 0;
+    while (count < buffer.length && hasNext()) {
+      buffer[count++] = next();
+    }
+    return count;
+  }
 }
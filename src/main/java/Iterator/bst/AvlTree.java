@@ -0,0 +1,100 @@
+package Iterator.bst;
+
+/**
+ * 自平衡(AVL)二叉搜索树。每次插入后沿插入路径旋转, 使任意节点左右子树高度差不超过 1,
+ * 因此即使按顺序插入, 插入也保持 O(log n), {@link BstIterator} 的路径栈深度也保持 O(log n)。
+ *
+ * <p>节点仍然是 {@link TreeNode}, 可以通过 {@link #getRoot()} 使用 getLeft/getRight 访问, 也可以直接交给 {@link BstIterator} 遍历。
+ * 在任一节点上调用 {@link TreeNode#insert(Comparable)} 等同于调用本树的 {@link #insert(Comparable)}。
+ * 与 {@link TreeNode#insert(Comparable)} 一致, 相等的值插入到右侧。
+ *
+ * @param <T> generically typed to accept various data types for the val property
+ */
+public class AvlTree<T extends Comparable<T>> {
+
+  private AvlTreeNode<T> root;
+
+  /**
+   * Inserts new TreeNode based on a given value, rebalancing the tree if needed.
+   *
+   * @param valToInsert The value to insert as a new TreeNode
+   */
+  public void insert(T valToInsert) {
+    root = insert(root, valToInsert, this);
+    root.clearParent();
+  }
+
+  /**
+   * 根节点, 旋转后可能变化, 空树时为 null.
+   */
+  public TreeNode<T> getRoot() {
+    return root;
+  }
+
+  /**
+   * 树的高度, 空树为 0.
+   */
+  public int getHeight() {
+    return AvlTreeNode.heightOf(root);
+  }
+
+  private static <T extends Comparable<T>> AvlTreeNode<T> insert(AvlTreeNode<T> node, T val,
+                                                                 AvlTree<T> tree) {
+    if (node == null) {
+      return new AvlTreeNode<>(val, tree);
+    }
+    if (node.getVal().compareTo(val) > 0) {
+      node.setLeft(insert(left(node), val, tree));
+    } else {
+      node.setRight(insert(right(node), val, tree));
+    }
+    return rebalance(node);
+  }
+
+  /**
+   * 更新节点高度, 失衡时旋转, 返回该子树新的根节点.
+   */
+  private static <T extends Comparable<T>> AvlTreeNode<T> rebalance(AvlTreeNode<T> node) {
+    node.updateHeight();
+    int balance = node.balanceFactor();
+    if (balance > 1) {
+      if (left(node).balanceFactor() < 0) {
+        node.setLeft(rotateLeft(left(node)));
+      }
+      return rotateRight(node);
+    }
+    if (balance < -1) {
+      if (right(node).balanceFactor() > 0) {
+        node.setRight(rotateRight(right(node)));
+      }
+      return rotateLeft(node);
+    }
+    return node;
+  }
+
+  private static <T extends Comparable<T>> AvlTreeNode<T> rotateRight(AvlTreeNode<T> node) {
+    AvlTreeNode<T> pivot = left(node);
+    node.setLeft(pivot.getRight());
+    pivot.setRight(node);
+    node.updateHeight();
+    pivot.updateHeight();
+    return pivot;
+  }
+
+  private static <T extends Comparable<T>> AvlTreeNode<T> rotateLeft(AvlTreeNode<T> node) {
+    AvlTreeNode<T> pivot = right(node);
+    node.setRight(pivot.getLeft());
+    pivot.setLeft(node);
+    node.updateHeight();
+    pivot.updateHeight();
+    return pivot;
+  }
+
+  private static <T extends Comparable<T>> AvlTreeNode<T> left(AvlTreeNode<T> node) {
+    return (AvlTreeNode<T>) node.getLeft();
+  }
+
+  private static <T extends Comparable<T>> AvlTreeNode<T> right(AvlTreeNode<T> node) {
+    return (AvlTreeNode<T>) node.getRight();
+  }
+}
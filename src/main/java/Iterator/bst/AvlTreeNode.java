@@ -0,0 +1,64 @@
+package Iterator.bst;
+
+/**
+ * AVL 树节点, 在 {@link TreeNode} 的基础上记录子树高度.
+ *
+ * <p>属于 {@link AvlTree} 的节点记住所属的树, 在节点上调用 {@link #insert(Comparable)} 时转交给整棵树插入并重新平衡,
+ * 不会挂上未平衡的普通 {@link TreeNode}. {@link PersistentBst} 的节点在多个版本间共享, 不允许修改.
+ *
+ * @param <T> generically typed to accept various data types for the val property
+ */
+class AvlTreeNode<T extends Comparable<T>> extends TreeNode<T> {
+
+  private int height;
+  // 所属的树, PersistentBst 的不可变节点为 null
+  private final AvlTree<T> tree;
+
+  AvlTreeNode(T val, AvlTree<T> tree) {
+    super(val);
+    this.height = 1;
+    this.tree = tree;
+  }
+
+  AvlTreeNode(T val, TreeNode<T> left, TreeNode<T> right) {
+    super(val, left, right);
+    this.tree = null;
+    updateHeight();
+  }
+
+  /**
+   * 通过所属的 {@link AvlTree} 插入, 插入后树的根可能变化.
+   *
+   * @param valToInsert The value to insert as a new TreeNode
+   * @throws UnsupportedOperationException 节点属于 {@link PersistentBst} 时
+   */
+  @Override
+  public void insert(T valToInsert) {
+    if (tree == null) {
+      throw new UnsupportedOperationException("Persistent nodes are immutable, insert through PersistentBst.");
+    }
+    tree.insert(valToInsert);
+  }
+
+  int getHeight() {
+    return height;
+  }
+
+  /**
+   * 根据左右子树重新计算高度.
+   */
+  void updateHeight() {
+    height = 1 + Math.max(heightOf(getLeft()), heightOf(getRight()));
+  }
+
+  /**
+   * 左子树高度减去右子树高度.
+   */
+  int balanceFactor() {
+    return heightOf(getLeft()) - heightOf(getRight());
+  }
+
+  static int heightOf(TreeNode<?> node) {
+    return node == null ? 0 : ((AvlTreeNode<?>) node).height;
+  }
+}
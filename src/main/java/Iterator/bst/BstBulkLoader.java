@@ -0,0 +1,124 @@
+package Iterator.bst;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 批量构建二叉搜索树。
+ *
+ * <p>对已排序的输入, 每次取区间中点作为子树根, 在 O(n) 内构建出完全平衡的树; 输入足够大时左右子树在 {@link ForkJoinPool} 上并行构建。
+ * 未排序的输入先用 {@link Arrays#parallelSort(Object[])} 并行排序。
+ */
+public final class BstBulkLoader {
+
+  // 小于该规模的子树直接在当前线程构建
+  private static final int PARALLEL_THRESHOLD = 1 << 13;
+
+  private BstBulkLoader() {
+  }
+
+  /**
+   * 由已排序的数组构建平衡树.
+   *
+   * @param sorted 按自然顺序非递减排列的值
+   * @return 根节点, 输入为空时返回 null
+   * @throws IllegalArgumentException 输入未排序时
+   */
+  public static <T extends Comparable<T>> TreeNode<T> fromSorted(T[] sorted) {
+    return fromSorted(Arrays.asList(sorted));
+  }
+
+  /**
+   * 由已排序的流构建平衡树.
+   *
+   * @param sorted 按自然顺序非递减排列的值
+   * @return 根节点, 输入为空时返回 null
+   * @throws IllegalArgumentException 输入未排序时
+   */
+  public static <T extends Comparable<T>> TreeNode<T> fromSorted(Stream<T> sorted) {
+    return fromSorted(sorted.collect(Collectors.toList()));
+  }
+
+  /**
+   * 由已排序的列表构建平衡树, 列表应支持随机访问.
+   *
+   * @param sorted 按自然顺序非递减排列的值
+   * @return 根节点, 输入为空时返回 null
+   * @throws IllegalArgumentException 输入未排序时
+   */
+  public static <T extends Comparable<T>> TreeNode<T> fromSorted(List<T> sorted) {
+    for (int i = 1; i < sorted.size(); i++) {
+      if (sorted.get(i - 1).compareTo(sorted.get(i)) > 0) {
+        throw new IllegalArgumentException("Input is not sorted at index " + i + ".");
+      }
+    }
+    return build(sorted);
+  }
+
+  /**
+   * 先并行排序, 再构建平衡树. 不修改传入的数组.
+   *
+   * @param values 任意顺序的值
+   * @return 根节点, 输入为空时返回 null
+   */
+  public static <T extends Comparable<T>> TreeNode<T> fromUnsorted(T[] values) {
+    T[] sorted = values.clone();
+    Arrays.parallelSort(sorted);
+    return build(Arrays.asList(sorted));
+  }
+
+  private static <T extends Comparable<T>> TreeNode<T> build(List<T> sorted) {
+    if (sorted.size() < PARALLEL_THRESHOLD) {
+      return buildRange(sorted, 0, sorted.size());
+    }
+    return ForkJoinPool.commonPool().invoke(new BuildTask<>(sorted, 0, sorted.size()));
+  }
+
+  private static <T extends Comparable<T>> TreeNode<T> buildRange(List<T> sorted, int from, int to) {
+    if (from >= to) {
+      return null;
+    }
+    int mid = (from + to) >>> 1;
+    TreeNode<T> node = new TreeNode<>(sorted.get(mid));
+    node.setLeft(buildRange(sorted, from, mid));
+    node.setRight(buildRange(sorted, mid + 1, to));
+    return node;
+  }
+
+  /**
+   * 并行构建 [from, to) 区间对应的子树.
+   */
+  private static final class BuildTask<T extends Comparable<T>> extends RecursiveTask<TreeNode<T>> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final List<T> sorted;
+    private final int from;
+    private final int to;
+
+    private BuildTask(List<T> sorted, int from, int to) {
+      this.sorted = sorted;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected TreeNode<T> compute() {
+      if (to - from < PARALLEL_THRESHOLD) {
+        return buildRange(sorted, from, to);
+      }
+      int mid = (from + to) >>> 1;
+      BuildTask<T> left = new BuildTask<>(sorted, from, mid);
+      left.fork();
+      TreeNode<T> right = new BuildTask<>(sorted, mid + 1, to).compute();
+      TreeNode<T> node = new TreeNode<>(sorted.get(mid));
+      node.setLeft(left.join());
+      node.setRight(right);
+      return node;
+    }
+  }
+}
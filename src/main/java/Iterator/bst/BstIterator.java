@@ -8,16 +8,60 @@ import java.util.NoSuchElementException;
 /**
  * BST 二叉树迭代器的有序实现。例如，给定一个带有整数值的 BST，期望根据整数的自然顺序（1、2、3...）检索树节点
  *
+ * <p>也支持只遍历 [from, to) 区间、按降序遍历, 以及通过 {@link #seek(Comparable)} 重新定位。
+ * 定位只沿一条从根出发的路径下降, 耗时 O(h), 不会扫描被跳过的前缀。
+ *
  * @param <T> This Iterator has been implemented with generic typing to allow for TreeNodes of
  *            different value types
  */
 public class BstIterator<T extends Comparable<T>> implements Iterator<TreeNode<T>> {
 
   private final ArrayDeque<TreeNode<T>> pathStack;
+  private final TreeNode<T> root;
+  private final T from;
+  private final T to;
+  private final boolean descending;
 
   public BstIterator(TreeNode<T> root) {
-    pathStack = new ArrayDeque<>();
-    pushPathToNextSmallest(root);
+    this(root, null, null, false);
+  }
+
+  /**
+   * 创建只遍历 [from, to) 区间的迭代器.
+   *
+   * @param root       树的根节点
+   * @param from       下界(包含), null 表示不限
+   * @param to         上界(不包含), null 表示不限
+   * @param descending true 时从大到小遍历
+   */
+  public BstIterator(TreeNode<T> root, T from, T to, boolean descending) {
+    this.pathStack = new ArrayDeque<>();
+    this.root = root;
+    this.from = from;
+    this.to = to;
+    this.descending = descending;
+    if (descending) {
+      pushPathToLargestBelow(to, false);
+    } else {
+      pushPathToSmallestFrom(from);
+    }
+  }
+
+  /**
+   * 重新定位迭代器。升序时下一个元素是不小于 key 的最小值, 降序时是不大于 key 的最大值, 结果仍受 [from, to) 限制。
+   *
+   * @param key 定位的键
+   */
+  public void seek(T key) {
+    if (descending) {
+      if (to != null && to.compareTo(key) <= 0) {
+        pushPathToLargestBelow(to, false);
+      } else {
+        pushPathToLargestBelow(key, true);
+      }
+    } else {
+      pushPathToSmallestFrom(from != null && from.compareTo(key) > 0 ? from : key);
+    }
   }
 
   /**
@@ -34,6 +78,64 @@ public class BstIterator<T extends Comparable<T>> implements Iterator<TreeNode<T
     }
   }
 
+  /**
+   * 降序遍历时的对应操作: 先压入所有右侧节点.
+   *
+   * @param node TreeNode that acts as root of the subtree we're interested in.
+   */
+  private void pushPathToNextLargest(TreeNode<T> node) {
+    while (node != null) {
+      pathStack.push(node);
+      node = node.getRight();
+    }
+  }
+
+  /**
+   * 从根节点下降, 只压入值不小于 key 的节点, 使栈顶成为不小于 key 的最小节点.
+   *
+   * @param key 下界, null 表示从最小值开始
+   */
+  private void pushPathToSmallestFrom(T key) {
+    pathStack.clear();
+    if (key == null) {
+      pushPathToNextSmallest(root);
+      return;
+    }
+    TreeNode<T> node = root;
+    while (node != null) {
+      if (node.getVal().compareTo(key) >= 0) {
+        pathStack.push(node);
+        node = node.getLeft();
+      } else {
+        node = node.getRight();
+      }
+    }
+  }
+
+  /**
+   * 从根节点下降, 只压入值小于(inclusive 时为不大于) key 的节点, 使栈顶成为满足条件的最大节点.
+   *
+   * @param key       上界, null 表示从最大值开始
+   * @param inclusive 是否包含 key 本身
+   */
+  private void pushPathToLargestBelow(T key, boolean inclusive) {
+    pathStack.clear();
+    if (key == null) {
+      pushPathToNextLargest(root);
+      return;
+    }
+    TreeNode<T> node = root;
+    while (node != null) {
+      int cmp = node.getVal().compareTo(key);
+      if (cmp < 0 || (inclusive && cmp == 0)) {
+        pathStack.push(node);
+        node = node.getRight();
+      } else {
+        node = node.getLeft();
+      }
+    }
+  }
+
   /**
    * Checks if there exists next element.
    *
@@ -41,7 +143,15 @@ public class BstIterator<T extends Comparable<T>> implements Iterator<TreeNode<T
    */
   @Override
   public boolean hasNext() {
-    return !pathStack.isEmpty();
+    TreeNode<T> next = pathStack.peek();
+    return next != null && inRange(next);
+  }
+
+  private boolean inRange(TreeNode<T> node) {
+    if (descending) {
+      return from == null || node.getVal().compareTo(from) >= 0;
+    }
+    return to == null || node.getVal().compareTo(to) < 0;
   }
 
   /**
@@ -52,12 +162,35 @@ public class BstIterator<T extends Comparable<T>> implements Iterator<TreeNode<T
    */
   @Override
   public TreeNode<T> next() throws NoSuchElementException {
-    if (pathStack.isEmpty()) {
+    if (!hasNext()) {
       throw new NoSuchElementException();
     }
     TreeNode<T> next = pathStack.pop();
-    pushPathToNextSmallest(next.getRight());
+    if (descending) {
+      pushPathToNextLargest(next.getLeft());
+    } else {
+      pushPathToNextSmallest(next.getRight());
+    }
     return next;
   }
 
+  @Override
+  public int nextBatch(TreeNode<T>[] buffer) {
+    int count = 0;
+    while (count < buffer.length) {
+      TreeNode<T> next = pathStack.peek();
+      if (next == null || !inRange(next)) {
+        break;
+      }
+      pathStack.pop();
+      if (descending) {
+        pushPathToNextLargest(next.getLeft());
+      } else {
+        pushPathToNextSmallest(next.getRight());
+      }
+      buffer[count++] = next;
+    }
+    return count;
+  }
+
 }
@@ -0,0 +1,58 @@
+package Iterator.bst;
+
+import Iterator.Iterator;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * {@link IntTreeNode} 的中序迭代器。路径栈是一个 int 数组, 保存节点在池中的下标;
+ * 用 {@link #nextInt()} 取值时全程不装箱。
+ */
+public class IntBstIterator implements Iterator<Integer> {
+
+  private final IntTreeNode tree;
+  private int[] pathStack;
+  private int depth;
+
+  public IntBstIterator(IntTreeNode tree) {
+    this.tree = tree;
+    this.pathStack = new int[16];
+    pushPathToNextSmallest(IntTreeNode.ROOT);
+  }
+
+  private void pushPathToNextSmallest(int node) {
+    while (node != IntTreeNode.NIL) {
+      if (depth == pathStack.length) {
+        pathStack = Arrays.copyOf(pathStack, depth << 1);
+      }
+      pathStack[depth++] = node;
+      node = tree.getLeft(node);
+    }
+  }
+
+  @Override
+  public boolean hasNext() {
+    return depth > 0;
+  }
+
+  /**
+   * Gets the next value without boxing.
+   *
+   * @return the next value according to in-order traversal
+   * @throws NoSuchElementException if this iterator does not have a next element
+   */
+  public int nextInt() {
+    if (depth == 0) {
+      throw new NoSuchElementException();
+    }
+    int next = pathStack[--depth];
+    pushPathToNextSmallest(tree.getRight(next));
+    return tree.getVal(next);
+  }
+
+  @Override
+  public Integer next() {
+    return nextInt();
+  }
+}
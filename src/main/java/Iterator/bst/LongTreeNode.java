@@ -0,0 +1,91 @@
+package Iterator.bst;
+
+import java.util.Arrays;
+
+/**
+ * 键为 long 的二叉搜索树节点。为了避免装箱和每个节点一个对象, 整棵树的节点存放在同一个数组节点池中,
+ * 节点用它在池中的下标表示, 根节点的下标为 {@link #ROOT}, 空子节点为 {@link #NIL}。
+ *
+ * <p>插入规则与 {@link TreeNode} 相同: 相等的值插入到右侧, 不做平衡。
+ */
+public class LongTreeNode {
+
+  public static final int ROOT = 0;
+  public static final int NIL = -1;
+
+  private static final int INITIAL_CAPACITY = 16;
+
+  private long[] vals;
+  private int[] lefts;
+  private int[] rights;
+  private int size;
+
+  /**
+   * Creates the root node with a given value.
+   *
+   * @param val The value of the root node
+   */
+  public LongTreeNode(long val) {
+    vals = new long[INITIAL_CAPACITY];
+    lefts = new int[INITIAL_CAPACITY];
+    rights = new int[INITIAL_CAPACITY];
+    newNode(val);
+  }
+
+  public long getVal(int node) {
+    return vals[node];
+  }
+
+  public int getLeft(int node) {
+    return lefts[node];
+  }
+
+  public int getRight(int node) {
+    return rights[node];
+  }
+
+  /**
+   * 节点总数.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Inserts a new node with the given value.
+   *
+   * @param valToInsert The value to insert
+   */
+  public void insert(long valToInsert) {
+    int parent = NIL;
+    int curr = ROOT;
+    while (curr != NIL) {
+      parent = curr;
+      curr = vals[curr] > valToInsert ? lefts[curr] : rights[curr];
+    }
+    int child = newNode(valToInsert);
+    if (vals[parent] > valToInsert) {
+      lefts[parent] = child;
+    } else {
+      rights[parent] = child;
+    }
+  }
+
+  private int newNode(long val) {
+    if (size == vals.length) {
+      int capacity = size << 1;
+      vals = Arrays.copyOf(vals, capacity);
+      lefts = Arrays.copyOf(lefts, capacity);
+      rights = Arrays.copyOf(rights, capacity);
+    }
+    vals[size] = val;
+    lefts[size] = NIL;
+    rights[size] = NIL;
+    return size++;
+  }
+
+  @Override
+  public String toString() {
+    return Long.toString(vals[ROOT]);
+  }
+}
@@ -0,0 +1,87 @@
+package Iterator.bst;
+
+import Iterator.Iterator;
+
+import java.util.NoSuchElementException;
+
+/**
+ * 常量额外空间的 BST 中序迭代器。
+ *
+ * <p>与 {@link BstIterator} 保存 O(h) 的路径栈不同, 它只记住下一个节点, 通过父节点指针回溯寻找后继,
+ * 每一步均摊 O(1), 适合同时打开大量游标的场景。它不修改树结构, 多个迭代器可以同时遍历同一棵树。
+ *
+ * <p>要求树的父节点指针有效, 即由 {@link TreeNode#insert(Comparable)}、{@link AvlTree} 或 {@link BstBulkLoader} 构建;
+ * {@link PersistentBst} 的节点没有父节点指针, 应使用 {@link BstIterator}。
+ *
+ * @param <T> This Iterator has been implemented with generic typing to allow for TreeNodes of
+ *            different value types
+ */
+public class ParentPointerBstIterator<T extends Comparable<T>> implements Iterator<TreeNode<T>> {
+
+  private final TreeNode<T> root;
+  private TreeNode<T> next;
+
+  /**
+   * 遍历以 root 为根的子树.
+   *
+   * @param root 子树的根节点, 可以为 null
+   * @throws IllegalArgumentException 根节点的子节点没有指回它的父节点指针时, 例如 {@link PersistentBst} 的快照
+   */
+  public ParentPointerBstIterator(TreeNode<T> root) {
+    if (root != null && (!pointsTo(root.getLeft(), root) || !pointsTo(root.getRight(), root))) {
+      throw new IllegalArgumentException("Tree has no valid parent pointers, use BstIterator instead.");
+    }
+    this.root = root;
+    this.next = root == null ? null : leftmost(root);
+  }
+
+  private static <T extends Comparable<T>> boolean pointsTo(TreeNode<T> child, TreeNode<T> parent) {
+    return child == null || child.getParent() == parent;
+  }
+
+  private static <T extends Comparable<T>> TreeNode<T> leftmost(TreeNode<T> node) {
+    while (node.getLeft() != null) {
+      node = node.getLeft();
+    }
+    return node;
+  }
+
+  /**
+   * 中序后继: 有右子树时为右子树的最左节点, 否则向上回溯到第一个从左侧进入的祖先, 不越过 root.
+   */
+  private TreeNode<T> successor(TreeNode<T> node) {
+    if (node.getRight() != null) {
+      return leftmost(node.getRight());
+    }
+    TreeNode<T> child = node;
+    while (child != root) {
+      TreeNode<T> parent = child.getParent();
+      if (parent.getLeft() == child) {
+        return parent;
+      }
+      child = parent;
+    }
+    return null;
+  }
+
+  @Override
+  public boolean hasNext() {
+    return next != null;
+  }
+
+  /**
+   * Gets the next element.
+   *
+   * @return TreeNode next. The next element according to our in-order traversal of the given BST
+   * @throws NoSuchElementException if this iterator does not have a next element
+   */
+  @Override
+  public TreeNode<T> next() throws NoSuchElementException {
+    if (next == null) {
+      throw new NoSuchElementException();
+    }
+    TreeNode<T> current = next;
+    next = successor(current);
+    return current;
+  }
+}
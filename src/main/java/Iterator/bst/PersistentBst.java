@@ -0,0 +1,95 @@
+package Iterator.bst;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 持久化(路径复制)的平衡二叉搜索树。
+ *
+ * <p>插入不修改任何已有节点, 而是复制从根到插入位置路径上的节点(必要时按 AVL 规则旋转), 未改变的子树由新旧两个版本共享,
+ * 新的根通过 CAS 原子发布。因此在旧的根上打开的 {@link BstIterator} 永远看不到之后的写入, 读者无需加锁。
+ *
+ * <p>{@link #snapshot()} 返回的节点不可修改, 在其上调用 {@link TreeNode#insert(Comparable)} 会抛出
+ * {@link UnsupportedOperationException}, 不会影响任何版本。
+ *
+ * @param <T> generically typed to accept various data types for the val property
+ */
+public class PersistentBst<T extends Comparable<T>> {
+
+  private final AtomicReference<AvlTreeNode<T>> root = new AtomicReference<>();
+
+  /**
+   * 插入一个值并发布新的根. 与 {@link TreeNode#insert(Comparable)} 一致, 相等的值插入到右侧.
+   *
+   * @param valToInsert The value to insert as a new TreeNode
+   */
+  public void insert(T valToInsert) {
+    while (true) {
+      AvlTreeNode<T> current = root.get();
+      if (root.compareAndSet(current, insert(current, valToInsert))) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * 当前版本的根节点, 空树时为 null.
+   */
+  public TreeNode<T> snapshot() {
+    return root.get();
+  }
+
+  /**
+   * 在当前版本上打开的迭代器.
+   */
+  public BstIterator<T> iterator() {
+    return new BstIterator<>(snapshot());
+  }
+
+  private static <T extends Comparable<T>> AvlTreeNode<T> insert(AvlTreeNode<T> node, T val) {
+    if (node == null) {
+      return new AvlTreeNode<>(val, null, null);
+    }
+    if (node.getVal().compareTo(val) > 0) {
+      return balance(node.getVal(), insert(left(node), val), right(node));
+    }
+    return balance(node.getVal(), left(node), insert(right(node), val));
+  }
+
+  /**
+   * 用给定的值和子树创建新节点, 失衡时以新建节点的方式完成旋转.
+   */
+  private static <T extends Comparable<T>> AvlTreeNode<T> balance(T val, AvlTreeNode<T> left,
+                                                                  AvlTreeNode<T> right) {
+    int leftHeight = AvlTreeNode.heightOf(left);
+    int rightHeight = AvlTreeNode.heightOf(right);
+    if (leftHeight > rightHeight + 1) {
+      if (left.balanceFactor() >= 0) {
+        return node(left.getVal(), left(left), node(val, right(left), right));
+      }
+      AvlTreeNode<T> pivot = right(left);
+      return node(pivot.getVal(), node(left.getVal(), left(left), left(pivot)),
+          node(val, right(pivot), right));
+    }
+    if (rightHeight > leftHeight + 1) {
+      if (right.balanceFactor() <= 0) {
+        return node(right.getVal(), node(val, left, left(right)), right(right));
+      }
+      AvlTreeNode<T> pivot = left(right);
+      return node(pivot.getVal(), node(val, left, left(pivot)),
+          node(right.getVal(), right(pivot), right(right)));
+    }
+    return node(val, left, right);
+  }
+
+  private static <T extends Comparable<T>> AvlTreeNode<T> node(T val, TreeNode<T> left, TreeNode<T> right) {
+    return new AvlTreeNode<>(val, left, right);
+  }
+
+  private static <T extends Comparable<T>> AvlTreeNode<T> left(AvlTreeNode<T> node) {
+    return (AvlTreeNode<T>) node.getLeft();
+  }
+
+  private static <T extends Comparable<T>> AvlTreeNode<T> right(AvlTreeNode<T> node) {
+    return (AvlTreeNode<T>) node.getRight();
+  }
+}
@@ -11,6 +11,7 @@ public class TreeNode<T extends Comparable<T>> {
   private final T val;
   private TreeNode<T> left;
   private TreeNode<T> right;
+  private TreeNode<T> parent;
 
   /**
    * Creates a TreeNode with a given value, and null children.
@@ -23,6 +24,20 @@ public class TreeNode<T extends Comparable<T>> {
     this.right = null;
   }
 
+  /**
+   * Creates a TreeNode with a given value and children. The children's parent pointers are left
+   * untouched, so the children may be shared between several trees.
+   *
+   * @param val   The value of the given node
+   * @param left  The left child
+   * @param right The right child
+   */
+  TreeNode(T val, TreeNode<T> left, TreeNode<T> right) {
+    this.val = val;
+    this.left = left;
+    this.right = right;
+  }
+
   public T getVal() {
     return val;
   }
@@ -31,16 +46,37 @@ public class TreeNode<T extends Comparable<T>> {
     return left;
   }
 
-  private void setLeft(TreeNode<T> left) {
+  void setLeft(TreeNode<T> left) {
     this.left = left;
+    if (left != null) {
+      left.parent = this;
+    }
   }
 
   public TreeNode<T> getRight() {
     return right;
   }
 
-  private void setRight(TreeNode<T> right) {
+  void setRight(TreeNode<T> right) {
     this.right = right;
+    if (right != null) {
+      right.parent = this;
+    }
+  }
+
+  /**
+   * 父节点, 根节点为 null. 由 {@link #insert(Comparable)}、{@link AvlTree} 和 {@link BstBulkLoader} 维护,
+   * {@link PersistentBst} 的节点在多个版本间共享, 不维护父节点.
+   */
+  public TreeNode<T> getParent() {
+    return parent;
+  }
+
+  /**
+   * 使该节点成为根节点.
+   */
+  void clearParent() {
+    this.parent = null;
   }
 
   /**
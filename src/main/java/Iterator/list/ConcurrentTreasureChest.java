@@ -0,0 +1,296 @@
+package Iterator.list;
+
+import Iterator.Iterator;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 可并发修改的百宝箱
+ *
+ * <p>物品存放在分块数组中, 整个箱子的状态是一个不可变的 {@link Snapshot}。增加、移除、修改类型时只复制被修改的那一块和块目录,
+ * 再用 CAS 发布新快照, 因此写操作之间没有全局锁, 读者也不会被阻塞。
+ *
+ * <p>{@link #iterator(ItemType)} 遍历的是调用时刻的快照, 期间其他线程的修改对它不可见, 也不需要整体复制物品列表。
+ *
+ * <p>物品由 {@link #add(Item)} 返回的编号标识。编号的低 32 位是位置, 高 32 位是该位置的代数:
+ * 移除后位置会被之后放入的物品复用, 因此反复放入、移除时占用的空间只取决于同时在箱中的物品数, 但复用时代数加一,
+ * 持有旧编号的调用方不会误删或误改占用同一位置的新物品。全部空出的块会被释放, 迭代器整块跳过。
+ * 箱内的物品不应直接调用 {@link Item#setType(ItemType)}, 而应通过 {@link #retype(long, ItemType)} 修改,
+ * 它会以新的 {@link Item} 替换旧物品, 旧快照中的物品保持不变。
+ */
+public class ConcurrentTreasureChest {
+
+  private static final int CHUNK_SHIFT = 10;
+  private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+  private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+  private static final long SLOT_MASK = 0xFFFFFFFFL;
+
+  private final AtomicReference<Snapshot> state = new AtomicReference<>(Snapshot.EMPTY);
+
+  /**
+   * 放入物品.
+   *
+   * @param item 物品
+   * @return 物品编号
+   */
+  public long add(Item item) {
+    Item stored = new Item(item.getType(), item.getName());
+    while (true) {
+      Snapshot current = state.get();
+      long id = current.nextId();
+      if (state.compareAndSet(current, current.add(id, stored))) {
+        return id;
+      }
+    }
+  }
+
+  /**
+   * 移除物品.
+   *
+   * @param id 物品编号
+   * @return 物品存在并被移除时返回 true
+   */
+  public boolean remove(long id) {
+    while (true) {
+      Snapshot current = state.get();
+      if (current.get(id) == null) {
+        return false;
+      }
+      if (state.compareAndSet(current, current.remove(id))) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * 修改物品类型.
+   *
+   * @param id   物品编号
+   * @param type 新的物品类型
+   * @return 物品存在时返回 true
+   */
+  public boolean retype(long id, ItemType type) {
+    while (true) {
+      Snapshot current = state.get();
+      Item item = current.get(id);
+      if (item == null) {
+        return false;
+      }
+      if (state.compareAndSet(current, current.replace(id, new Item(type, item.getName())))) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * 获取当前快照.
+   */
+  public Snapshot snapshot() {
+    return state.get();
+  }
+
+  public Iterator<Item> iterator(ItemType itemType) {
+    return snapshot().iterator(itemType);
+  }
+
+  /**
+   * 百宝箱在某一版本的不可变快照.
+   */
+  public static final class Snapshot {
+
+    private static final Snapshot EMPTY = new Snapshot(0L, new Entry[0][], new int[0], 0, 0, null);
+
+    private final long version;
+    // 没有物品的块为 null
+    private final Entry[][] chunks;
+    // 每块中的物品数
+    private final int[] liveCounts;
+    // 已分配的编号数, 包含已移除物品留下的空位
+    private final int slots;
+    private final int size;
+    // 可复用的空位编号
+    private final FreeId freeIds;
+
+    private Snapshot(long version, Entry[][] chunks, int[] liveCounts, int slots, int size, FreeId freeIds) {
+      this.version = version;
+      this.chunks = chunks;
+      this.liveCounts = liveCounts;
+      this.slots = slots;
+      this.size = size;
+      this.freeIds = freeIds;
+    }
+
+    public long getVersion() {
+      return version;
+    }
+
+    /**
+     * 快照中的物品数量.
+     */
+    public int size() {
+      return size;
+    }
+
+    /**
+     * 按编号获取物品, 不存在、已移除或位置已被其他物品复用时返回 null.
+     */
+    public Item get(long id) {
+      Entry entry = entry(slotOf(id));
+      return entry == null || entry.generation != generationOf(id) ? null : entry.item;
+    }
+
+    private Entry entry(int slot) {
+      if (slot < 0 || slot >= slots) {
+        return null;
+      }
+      Entry[] chunk = chunks[slot >>> CHUNK_SHIFT];
+      return chunk == null ? null : chunk[slot & CHUNK_MASK];
+    }
+
+    public Iterator<Item> iterator(ItemType itemType) {
+      return new SnapshotItemIterator(this, itemType);
+    }
+
+    /**
+     * 下一个放入的物品使用的编号, 优先复用空位.
+     */
+    private long nextId() {
+      return freeIds != null ? idOf(freeIds.slot, freeIds.generation) : slots;
+    }
+
+    private Snapshot add(long id, Item item) {
+      Entry entry = new Entry(item, generationOf(id));
+      if (freeIds != null) {
+        return replace(slotOf(id), entry, slots, freeIds.next);
+      }
+      return replace(slotOf(id), entry, slots + 1, null);
+    }
+
+    /**
+     * 移除物品, 空位记下下一代的代数, 复用时旧编号随之失效.
+     */
+    private Snapshot remove(long id) {
+      int slot = slotOf(id);
+      return replace(slot, null, slots, new FreeId(slot, generationOf(id) + 1, freeIds));
+    }
+
+    private Snapshot replace(long id, Item item) {
+      return replace(slotOf(id), new Entry(item, generationOf(id)), slots, freeIds);
+    }
+
+    private Snapshot replace(int slot, Entry entry, int newSlots, FreeId newFreeIds) {
+      int chunk = slot >>> CHUNK_SHIFT;
+      Entry[][] newChunks;
+      int[] newLiveCounts;
+      if (chunk == chunks.length) {
+        newChunks = Arrays.copyOf(chunks, chunk + 1);
+        newLiveCounts = Arrays.copyOf(liveCounts, chunk + 1);
+      } else {
+        newChunks = chunks.clone();
+        newLiveCounts = liveCounts.clone();
+      }
+      Entry[] oldChunk = chunk < chunks.length ? chunks[chunk] : null;
+      Entry old = oldChunk == null ? null : oldChunk[slot & CHUNK_MASK];
+      int delta = (entry != null ? 1 : 0) - (old != null ? 1 : 0);
+      newLiveCounts[chunk] += delta;
+      if (newLiveCounts[chunk] == 0) {
+        newChunks[chunk] = null;
+      } else {
+        newChunks[chunk] = oldChunk == null ? new Entry[CHUNK_SIZE] : oldChunk.clone();
+        newChunks[chunk][slot & CHUNK_MASK] = entry;
+      }
+      return new Snapshot(version + 1, newChunks, newLiveCounts, newSlots, size + delta, newFreeIds);
+    }
+  }
+
+  private static long idOf(int slot, int generation) {
+    return (long) generation << 32 | slot;
+  }
+
+  private static int slotOf(long id) {
+    return (int) (id & SLOT_MASK);
+  }
+
+  private static int generationOf(long id) {
+    return (int) (id >>> 32);
+  }
+
+  /**
+   * 某个位置上的物品及该位置当前的代数.
+   */
+  private static final class Entry {
+
+    private final Item item;
+    private final int generation;
+
+    private Entry(Item item, int generation) {
+      this.item = item;
+      this.generation = generation;
+    }
+  }
+
+  /**
+   * 不可变的空位链表, 记下每个空位下次使用时的代数, 新旧快照共享尾部.
+   */
+  private static final class FreeId {
+
+    private final int slot;
+    private final int generation;
+    private final FreeId next;
+
+    private FreeId(int slot, int generation, FreeId next) {
+      this.slot = slot;
+      this.generation = generation;
+      this.next = next;
+    }
+  }
+
+  /**
+   * 快照迭代器, 整块跳过没有物品的块, 并跳过已移除的空位和类型不匹配的物品.
+   */
+  private static final class SnapshotItemIterator implements Iterator<Item> {
+
+    private final Entry[][] chunks;
+    private final int slots;
+    private final ItemType type;
+    private int cursor;
+
+    private SnapshotItemIterator(Snapshot snapshot, ItemType type) {
+      this.chunks = snapshot.chunks;
+      this.slots = snapshot.slots;
+      this.type = type;
+      this.cursor = -1;
+      advance();
+    }
+
+    private void advance() {
+      while (++cursor < slots) {
+        Entry[] chunk = chunks[cursor >>> CHUNK_SHIFT];
+        if (chunk == null) {
+          cursor |= CHUNK_MASK;
+          continue;
+        }
+        Entry entry = chunk[cursor & CHUNK_MASK];
+        if (entry != null && (type == ItemType.ANY || entry.item.getType() == type)) {
+          return;
+        }
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return cursor < slots;
+    }
+
+    @Override
+    public Item next() {
+      if (cursor >= slots) {
+        return null;
+      }
+      Item item = chunks[cursor >>> CHUNK_SHIFT][cursor & CHUNK_MASK].item;
+      advance();
+      return item;
+    }
+  }
+}
@@ -18,6 +18,10 @@ public class Item {
     return name;
   }
 
+  public String getName() {
+    return name;
+  }
+
   public ItemType getType() {
     return type;
   }
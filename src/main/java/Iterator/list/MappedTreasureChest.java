@@ -0,0 +1,186 @@
+package Iterator.list;
+
+import Iterator.Iterator;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 列式存储、内存映射的百宝箱
+ *
+ * <p>文件布局(大端序):
+ * <pre>
+ *   int    魔数 TCHS
+ *   int    物品数量 n
+ *   int    字典中名称数量 d
+ *   byte[n]    类型列, 每个物品一个 {@link ItemType} 序号
+ *   int[n]     名称列, 每个物品在字典中的编号
+ *   int[d + 1] 字典偏移, 第 i 个名称占字符串池的 [offset[i], offset[i + 1])
+ *   byte[]     字符串池, UTF-8 编码
+ * </pre>
+ *
+ * <p>打开时只做一次映射, 数据留在堆外的页缓存中; 迭代器只扫描类型列, 在 {@link Iterator#next()} 时才创建 {@link Item}。
+ * 单个映射最大 2GB, 可容纳数千万个物品。
+ */
+public class MappedTreasureChest {
+
+  private static final int MAGIC = 0x54434853;
+  private static final int HEADER_BYTES = 3 * Integer.BYTES;
+  private static final ItemType[] TYPES = ItemType.values();
+
+  private final ByteBuffer buffer;
+  private final int size;
+  private final int nameColumn;
+  private final int offsetColumn;
+  private final int stringPool;
+  // 已解码的名称, 按需填充
+  private final String[] names;
+
+  private MappedTreasureChest(ByteBuffer buffer) {
+    if (buffer.getInt(0) != MAGIC) {
+      throw new IllegalArgumentException("不是百宝箱文件");
+    }
+    this.buffer = buffer;
+    this.size = buffer.getInt(Integer.BYTES);
+    int dictionarySize = buffer.getInt(2 * Integer.BYTES);
+    this.nameColumn = HEADER_BYTES + size;
+    this.offsetColumn = nameColumn + size * Integer.BYTES;
+    this.stringPool = offsetColumn + (dictionarySize + 1) * Integer.BYTES;
+    this.names = new String[dictionarySize];
+  }
+
+  /**
+   * 以只读方式映射百宝箱文件.
+   *
+   * @param file 由 {@link #write(Path, List)} 写出的文件
+   */
+  public static MappedTreasureChest open(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      // 映射建立后不依赖于通道, 关闭通道不影响映射
+      return new MappedTreasureChest(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    }
+  }
+
+  /**
+   * 将物品按列式格式写入文件, 名称相同的物品共享字典中的同一项.
+   *
+   * @param file  目标文件
+   * @param items 物品集合
+   */
+  public static void write(Path file, List<Item> items) throws IOException {
+    Map<String, Integer> dictionary = new HashMap<>();
+    List<byte[]> pool = new ArrayList<>();
+    int[] nameIds = new int[items.size()];
+    for (int i = 0; i < items.size(); i++) {
+      String name = items.get(i).getName();
+      Integer id = dictionary.get(name);
+      if (id == null) {
+        id = pool.size();
+        dictionary.put(name, id);
+        pool.add(name.getBytes(StandardCharsets.UTF_8));
+      }
+      nameIds[i] = id;
+    }
+
+    try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+      out.writeInt(MAGIC);
+      out.writeInt(items.size());
+      out.writeInt(pool.size());
+      for (Item item : items) {
+        out.writeByte(item.getType().ordinal());
+      }
+      for (int nameId : nameIds) {
+        out.writeInt(nameId);
+      }
+      int offset = 0;
+      out.writeInt(offset);
+      for (byte[] name : pool) {
+        offset += name.length;
+        out.writeInt(offset);
+      }
+      for (byte[] name : pool) {
+        out.write(name);
+      }
+    }
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public Iterator<Item> iterator(ItemType itemType) {
+    return new MappedItemIterator(itemType);
+  }
+
+  private ItemType typeAt(int index) {
+    return TYPES[buffer.get(HEADER_BYTES + index)];
+  }
+
+  private String nameAt(int index) {
+    int nameId = buffer.getInt(nameColumn + index * Integer.BYTES);
+    String name = names[nameId];
+    if (name == null) {
+      int start = buffer.getInt(offsetColumn + nameId * Integer.BYTES);
+      int end = buffer.getInt(offsetColumn + (nameId + 1) * Integer.BYTES);
+      byte[] bytes = new byte[end - start];
+      ByteBuffer slice = buffer.duplicate();
+      slice.position(stringPool + start);
+      slice.get(bytes);
+      name = new String(bytes, StandardCharsets.UTF_8);
+      names[nameId] = name;
+    }
+    return name;
+  }
+
+  /**
+   * 扫描类型列的迭代器.
+   */
+  private final class MappedItemIterator implements Iterator<Item> {
+
+    private final ItemType type;
+    private int cursor;
+
+    private MappedItemIterator(ItemType type) {
+      this.type = type;
+      this.cursor = -1;
+      advance();
+    }
+
+    private void advance() {
+      if (type == ItemType.ANY) {
+        cursor++;
+        return;
+      }
+      byte ordinal = (byte) type.ordinal();
+      while (++cursor < size && buffer.get(HEADER_BYTES + cursor) != ordinal) {
+        // 跳过类型不匹配的物品
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      return cursor < size;
+    }
+
+    @Override
+    public Item next() {
+      if (cursor >= size) {
+        return null;
+      }
+      Item item = new Item(typeAt(cursor), nameAt(cursor));
+      advance();
+      return item;
+    }
+  }
+}
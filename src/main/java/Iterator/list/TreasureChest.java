@@ -4,20 +4,33 @@ import Iterator.Iterator;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * 百宝箱
+ *
+ * <p>构造时为每种 {@link ItemType} 建立一份位置索引 (posting list)，按类型遍历时只访问命中的物品。
+ * 箱内物品应通过 {@link #retype(int, ItemType)} 修改类型，它只复制受影响的两份索引并原子地发布；
+ * 直接调用 {@link Item#setType(ItemType)} 不会更新索引，迭代器会跳过类型已经不符的物品，但不会在新类型下找到它。
  */
 public class TreasureChest {
 
   private final List<Item> items;
 
+  // 物品类型 -> 该类型物品在 items 中的下标(升序), ANY 对应全部下标
+  // 只整体替换, 不修改已发布的数组, 迭代器持有的旧数组保持不变
+  private volatile Map<ItemType, int[]> positions;
+
   /**
    * Constructor.
    */
   public TreasureChest() {
-    items = Arrays.asList(
+    this(Arrays.asList(
         new Item(ItemType.POTION, "勇气药水"),
         new Item(ItemType.RING, "暗影戒指"),
         new Item(ItemType.POTION, "智慧药水"),
@@ -27,13 +40,101 @@ public class TreasureChest {
         new Item(ItemType.POTION, "治疗药水"),
         new Item(ItemType.RING, "盔甲之戒"),
         new Item(ItemType.WEAPON, "钢戟"),
-        new Item(ItemType.WEAPON, "毒之匕首"));
+        new Item(ItemType.WEAPON, "毒之匕首")));
+  }
+
+  /**
+   * 使用给定的物品创建百宝箱.
+   *
+   * @param items 物品集合
+   */
+  public TreasureChest(List<Item> items) {
+    this.items = new ArrayList<>(items);
+    this.positions = buildPositions(this.items);
+  }
+
+  private static Map<ItemType, int[]> buildPositions(List<Item> items) {
+    ItemType[] types = ItemType.values();
+    int[] counts = new int[types.length];
+    for (Item item : items) {
+      counts[item.getType().ordinal()]++;
+    }
+    Map<ItemType, int[]> positions = new EnumMap<>(ItemType.class);
+    int[][] lists = new int[types.length][];
+    for (ItemType type : types) {
+      lists[type.ordinal()] = new int[type == ItemType.ANY ? items.size() : counts[type.ordinal()]];
+      positions.put(type, lists[type.ordinal()]);
+    }
+    int[] fill = new int[types.length];
+    int[] any = lists[ItemType.ANY.ordinal()];
+    for (int i = 0; i < items.size(); i++) {
+      any[i] = i;
+      int ordinal = items.get(i).getType().ordinal();
+      if (ordinal != ItemType.ANY.ordinal()) {
+        lists[ordinal][fill[ordinal]++] = i;
+      }
+    }
+    return positions;
+  }
+
+  /**
+   * 修改物品类型并更新索引, 只复制旧类型和新类型的下标数组. 已创建的迭代器继续使用旧索引.
+   *
+   * @param index 物品在 {@link #getItems()} 中的下标
+   * @param type  新的物品类型
+   */
+  public synchronized void retype(int index, ItemType type) {
+    Item item = items.get(index);
+    ItemType old = item.getType();
+    if (old == type) {
+      return;
+    }
+    Map<ItemType, int[]> updated = new EnumMap<>(positions);
+    if (old != ItemType.ANY) {
+      updated.put(old, without(updated.get(old), index));
+    }
+    if (type != ItemType.ANY) {
+      updated.put(type, with(updated.get(type), index));
+    }
+    item.setType(type);
+    positions = updated;
+  }
+
+  private static int[] without(int[] sorted, int value) {
+    int at = Arrays.binarySearch(sorted, value);
+    int[] result = new int[sorted.length - 1];
+    System.arraycopy(sorted, 0, result, 0, at);
+    System.arraycopy(sorted, at + 1, result, at, result.length - at);
+    return result;
+  }
+
+  private static int[] with(int[] sorted, int value) {
+    int at = -Arrays.binarySearch(sorted, value) - 1;
+    int[] result = new int[sorted.length + 1];
+    System.arraycopy(sorted, 0, result, 0, at);
+    result[at] = value;
+    System.arraycopy(sorted, at, result, at + 1, sorted.length - at);
+    return result;
   }
 
   public Iterator<Item> iterator(ItemType itemType) {
     return new TreasureChestItemIterator(this, itemType);
   }
 
+  public Spliterator<Item> spliterator(ItemType itemType) {
+    return new TreasureChestSpliterator(this, itemType);
+  }
+
+  /**
+   * 按类型获取物品流.
+   *
+   * @param itemType 物品类型
+   * @param parallel 是否并行流
+   */
+  public Stream<Item> stream(ItemType itemType, boolean parallel) {
+    return StreamSupport.stream(spliterator(itemType), parallel);
+  }
+
   /**
    * Get all items.
    */
@@ -41,4 +142,18 @@ public class TreasureChest {
     return new ArrayList<>(items);
   }
 
+  /**
+   * 不复制的物品列表, 仅供迭代器使用.
+   */
+  List<Item> items() {
+    return items;
+  }
+
+  /**
+   * 指定类型物品的下标索引, 仅供迭代器使用, 调用方不得修改.
+   */
+  int[] positions(ItemType itemType) {
+    return positions.get(itemType);
+  }
+
 }
@@ -6,49 +6,69 @@ import java.util.List;
 
 /**
  * 百宝箱迭代器
+ *
+ * <p>沿百宝箱中对应类型的下标索引前进, 每一步 O(1) 且不产生额外分配.
+ * 类型已经与索引不符的物品(例如直接调用了 {@link Item#setType(ItemType)})会被跳过.
  */
 public class TreasureChestItemIterator implements Iterator<Item> {
 
-  private final TreasureChest chest;
-  private int idx;
+  private final List<Item> items;
+  private final int[] positions;
   private final ItemType type;
+  private int cursor;
 
   /**
    * Constructor.
    */
   public TreasureChestItemIterator(TreasureChest chest, ItemType type) {
-    this.chest = chest;
+    this.items = chest.items();
+    this.positions = chest.positions(type);
     this.type = type;
-    this.idx = -1;
+    this.cursor = 0;
   }
 
   @Override
   public boolean hasNext() {
-    return findNextIdx() != -1;
+    skipRetyped();
+    return cursor < positions.length;
   }
 
   @Override
   public Item next() {
-    idx = findNextIdx();
-    if (idx != -1) {
-      return chest.getItems().get(idx);
+    if (hasNext()) {
+      return items.get(positions[cursor++]);
     }
     return null;
   }
 
-  private int findNextIdx() {
-    List<Item> items = chest.getItems();
-    int tempIdx = idx;
-    while (true) {
-      tempIdx++;
-      if (tempIdx >= items.size()) {
-        tempIdx = -1;
-        break;
+  @Override
+  public int nextBatch(Item[] buffer) {
+    if (type == ItemType.ANY) {
+      int count = Math.min(buffer.length, positions.length - cursor);
+      for (int i = 0; i < count; i++) {
+        buffer[i] = items.get(positions[cursor + i]);
       }
-      if (type.equals(ItemType.ANY) || items.get(tempIdx).getType().equals(type)) {
-        break;
+      cursor += count;
+      return count;
+    }
+    int count = 0;
+    int c = cursor;
+    while (count < buffer.length && c < positions.length) {
+      Item item = items.get(positions[c++]);
+      if (item.getType() == type) {
+        buffer[count++] = item;
       }
     }
-    return tempIdx;
+    cursor = c;
+    return count;
+  }
+
+  private void skipRetyped() {
+    if (type == ItemType.ANY) {
+      return;
+    }
+    while (cursor < positions.length && items.get(positions[cursor]).getType() != type) {
+      cursor++;
+    }
   }
 }
@@ -0,0 +1,76 @@
+package Iterator.list;
+
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * 百宝箱分割迭代器
+ *
+ * <p>在百宝箱某一类型的下标索引区间 [origin, fence) 上工作, 每次按中点对半拆分,
+ * 因此报告 {@link #SIZED} 和 {@link #SUBSIZED}, fork-join 可以在各核之间均匀分配任务.
+ * 物品类型以创建时为准, 与流的要求一致, 遍历期间不应修改物品类型.
+ */
+public class TreasureChestSpliterator implements Spliterator<Item> {
+
+  private final List<Item> items;
+  private final int[] positions;
+  private int origin;
+  private final int fence;
+
+  /**
+   * Constructor.
+   */
+  public TreasureChestSpliterator(TreasureChest chest, ItemType type) {
+    this(chest.items(), chest.positions(type));
+  }
+
+  private TreasureChestSpliterator(List<Item> items, int[] positions) {
+    this(items, positions, 0, positions.length);
+  }
+
+  private TreasureChestSpliterator(List<Item> items, int[] positions, int origin, int fence) {
+    this.items = items;
+    this.positions = positions;
+    this.origin = origin;
+    this.fence = fence;
+  }
+
+  @Override
+  public boolean tryAdvance(Consumer<? super Item> action) {
+    if (origin < fence) {
+      action.accept(items.get(positions[origin++]));
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  public void forEachRemaining(Consumer<? super Item> action) {
+    for (int i = origin; i < fence; i++) {
+      action.accept(items.get(positions[i]));
+    }
+    origin = fence;
+  }
+
+  @Override
+  public Spliterator<Item> trySplit() {
+    int mid = (origin + fence) >>> 1;
+    if (mid <= origin) {
+      return null;
+    }
+    TreasureChestSpliterator prefix = new TreasureChestSpliterator(items, positions, origin, mid);
+    origin = mid;
+    return prefix;
+  }
+
+  @Override
+  public long estimateSize() {
+    return fence - origin;
+  }
+
+  @Override
+  public int characteristics() {
+    return ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+  }
+}